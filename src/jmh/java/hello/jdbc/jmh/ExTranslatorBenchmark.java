@@ -0,0 +1,95 @@
+package hello.jdbc.jmh;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.repository.ex.H2ExceptionTranslator;
+import hello.jdbc.repository.ex.MyDbException;
+import hello.jdbc.repository.ex.MyDuplicateKeyException;
+import hello.jdbc.support.EmbeddedH2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQLException 한 건 변환 비용
+ * - spring : SQLErrorCodeSQLExceptionTranslator(dataSource), 메타데이터는 Setup 에서 미리 읽어 둔 상태
+ * - h2     : H2ExceptionTranslator.INSTANCE.translate
+ * - manual : ExTranslatorV1Test 의 errorCode == 23505 비교
+ * - h2My   : H2ExceptionTranslator.INSTANCE.toMyException
+ * - springNewTranslator : DataSource 마다 처음 하는 변환 (DatabaseMetaData 조회 포함)
+ * 23505 - 중복 키 (코드표 앞쪽이 아님), 90067 - 코드표에 없는 코드 (SQLState 변환까지 가는 경우)
+ * ./gradlew jmh -Pjmh.includes=ExTranslatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExTranslatorBenchmark {
+
+    static final String SQL = "insert into member(member_id, money) values(?,?)";
+
+    @Param({"23505", "90067"})
+    public int errorCode;
+
+    private HikariDataSource dataSource;
+    private SQLErrorCodeSQLExceptionTranslator spring;
+    private SQLException exception;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = EmbeddedH2.start("translator");
+        exception = errorCode == 23505
+                ? new SQLException("Unique index or primary key violation", "23505", errorCode)
+                : new SQLException("connection refused", "08001", errorCode);
+        spring = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+        spring.translate("save", SQL, exception);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EmbeddedH2.stop(dataSource);
+    }
+
+    @Benchmark
+    public DataAccessException spring() {
+        return spring.translate("save", SQL, exception);
+    }
+
+    @Benchmark
+    public DataAccessException h2() {
+        return H2ExceptionTranslator.INSTANCE.translate("save", SQL, exception);
+    }
+
+    @Benchmark
+    public RuntimeException manual() {
+        if (exception.getErrorCode() == 23505) {
+            return new MyDuplicateKeyException(exception);
+        }
+        return new MyDbException(exception);
+    }
+
+    @Benchmark
+    public RuntimeException h2My() {
+        return H2ExceptionTranslator.INSTANCE.toMyException(exception);
+    }
+
+    /**
+     * SQLErrorCodesFactory 는 DataSource 인스턴스별로 캐시하므로 매번 새 DataSource 로 감싼다
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public DataAccessException springNewTranslator() {
+        return new SQLErrorCodeSQLExceptionTranslator(new DelegatingDataSource(dataSource)).translate("save", SQL, exception);
+    }
+}
@@ -0,0 +1,144 @@
+package hello.jdbc.jmh;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepository;
+import hello.jdbc.repository.MemberRepositoryV4_1;
+import hello.jdbc.repository.MemberRepositoryV4_2;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.repository.ex.MyDbException;
+import hello.jdbc.repository.ex.MyDuplicateKeyException;
+import hello.jdbc.support.EmbeddedH2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 조회 실패가 잦을 때 예외 비용 (메모리 H2 + HikariCP)
+ * - findById* : 없으면 예외 (V4_2 NoSuchElementException, V5 EmptyResultDataAccessException) 를 잡아서 false
+ * - optional* : findOptionalById, 예외 없이 Optional.empty()
+ * 적중(Hit), 실패(Miss), 실패 30% 섞임(Mixed) 을 각각 측정
+ * duplicateSave - V4_1 save 중복 키(MyDuplicateKeyException) 를 스택 트레이스 있음/없음(stackless) 으로 측정
+ * ./gradlew jmh -Pjmh.includes=FindOptionalByIdBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FindOptionalByIdBenchmark {
+
+    static final String MEMBER_ID = "optBench";
+    static final String MISSING_ID = "missing";
+
+    @State(Scope.Benchmark)
+    public static class Lookup {
+
+        @Param({"V4_2", "V5"})
+        public String version;
+
+        private HikariDataSource dataSource;
+        private MemberRepository repository;
+        private int sequence;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            dataSource = EmbeddedH2.start("optional");
+            repository = "V4_2".equals(version) ? new MemberRepositoryV4_2(dataSource) : new MemberRepositoryV5(dataSource);
+            repository.save(new Member(MEMBER_ID, 10000));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            EmbeddedH2.stop(dataSource);
+        }
+
+        /**
+         * 10 번 중 3 번은 없는 회원
+         */
+        String nextId() {
+            return sequence++ % 10 < 3 ? MISSING_ID : MEMBER_ID;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DuplicateKey {
+
+        @Param({"false", "true"})
+        public boolean stackless;
+
+        private HikariDataSource dataSource;
+        private MemberRepositoryV4_1 repository;
+        private final Member duplicate = new Member(MEMBER_ID, 0);
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            dataSource = EmbeddedH2.start("duplicate");
+            repository = new MemberRepositoryV4_1(dataSource);
+            repository.save(duplicate);
+            MyDbException.setStackless(stackless);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            MyDbException.setStackless(false);
+            EmbeddedH2.stop(dataSource);
+        }
+    }
+
+    @Benchmark
+    public boolean findByIdHit(Lookup state) {
+        return exists(state.repository, MEMBER_ID);
+    }
+
+    @Benchmark
+    public boolean findByIdMiss(Lookup state) {
+        return exists(state.repository, MISSING_ID);
+    }
+
+    @Benchmark
+    public boolean findByIdMixed(Lookup state) {
+        return exists(state.repository, state.nextId());
+    }
+
+    @Benchmark
+    public boolean optionalHit(Lookup state) {
+        return state.repository.findOptionalById(MEMBER_ID).isPresent();
+    }
+
+    @Benchmark
+    public boolean optionalMiss(Lookup state) {
+        return state.repository.findOptionalById(MISSING_ID).isPresent();
+    }
+
+    @Benchmark
+    public boolean optionalMixed(Lookup state) {
+        return state.repository.findOptionalById(state.nextId()).isPresent();
+    }
+
+    @Benchmark
+    public Object duplicateSave(DuplicateKey state) {
+        try {
+            return state.repository.save(state.duplicate);
+        } catch (MyDuplicateKeyException e) {
+            return e;
+        }
+    }
+
+    private static boolean exists(MemberRepository repository, String memberId) {
+        try {
+            repository.findById(memberId);
+            return true;
+        } catch (NoSuchElementException | EmptyResultDataAccessException e) {
+            return false;
+        }
+    }
+}
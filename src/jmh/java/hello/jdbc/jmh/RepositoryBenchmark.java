@@ -0,0 +1,208 @@
+package hello.jdbc.jmh;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.connection.DBConnectionUtil;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepository;
+import hello.jdbc.repository.MemberRepositoryEx;
+import hello.jdbc.repository.MemberRepositoryV0;
+import hello.jdbc.repository.MemberRepositoryV1;
+import hello.jdbc.repository.MemberRepositoryV2;
+import hello.jdbc.repository.MemberRepositoryV3;
+import hello.jdbc.repository.MemberRepositoryV4_1;
+import hello.jdbc.repository.MemberRepositoryV4_2;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.support.EmbeddedH2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 레포지토리 세대별 save/findById/update/delete 비용 (메모리 H2 + HikariCP, 트랜잭션 없음)
+ * V0 은 DBConnectionUtil 을 같은 풀로 바꿔서 측정
+ *
+ * delete 는 지울 행이 있어야 하므로 save 직후 같은 행을 지우는 saveAndDelete 로 측정 (delete ~ saveAndDelete - save)
+ * ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+    static final String MEMBER_ID = "jmhMember";
+
+    @Param({"V0", "V1", "V2", "V3", "V4_1", "V4_2", "V5"})
+    public String version;
+
+    private HikariDataSource dataSource;
+    private MemberRepositoryEx repository;
+    private long sequence;
+    private int money;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        dataSource = EmbeddedH2.start("repository");
+        DBConnectionUtil.setDataSource(dataSource);
+        repository = repository(version);
+        repository.save(new Member(MEMBER_ID, 0));
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSaved() {
+        new JdbcTemplate(dataSource).update("delete from member where member_id like 'n%'");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DBConnectionUtil.setDataSource(null);
+        EmbeddedH2.stop(dataSource);
+    }
+
+    @Benchmark
+    public Member save() throws SQLException {
+        return repository.save(new Member(nextId(), 10000));
+    }
+
+    @Benchmark
+    public Member findById() throws SQLException {
+        return repository.findById(MEMBER_ID);
+    }
+
+    @Benchmark
+    public void update() throws SQLException {
+        repository.update(MEMBER_ID, ++money);
+    }
+
+    @Benchmark
+    public void saveAndDelete() throws SQLException {
+        String memberId = nextId();
+        repository.save(new Member(memberId, 10000));
+        repository.delete(memberId);
+    }
+
+    /**
+     * member_id 는 varchar(10)
+     */
+    private String nextId() {
+        return "n" + Long.toString(sequence++, 36);
+    }
+
+    private MemberRepositoryEx repository(String version) {
+        switch (version) {
+            case "V0":
+                MemberRepositoryV0 v0 = new MemberRepositoryV0();
+                return new MemberRepositoryEx() {
+                    @Override
+                    public Member save(Member member) throws SQLException {
+                        return v0.save(member);
+                    }
+
+                    @Override
+                    public Member findById(String memberId) throws SQLException {
+                        return v0.findById(memberId);
+                    }
+
+                    @Override
+                    public void update(String memberId, int money) throws SQLException {
+                        v0.update(memberId, money);
+                    }
+
+                    @Override
+                    public void delete(String memberId) throws SQLException {
+                        v0.delete(memberId);
+                    }
+                };
+            case "V1":
+                MemberRepositoryV1 v1 = new MemberRepositoryV1(dataSource);
+                return new MemberRepositoryEx() {
+                    @Override
+                    public Member save(Member member) throws SQLException {
+                        return v1.save(member);
+                    }
+
+                    @Override
+                    public Member findById(String memberId) throws SQLException {
+                        return v1.findById(memberId);
+                    }
+
+                    @Override
+                    public void update(String memberId, int money) throws SQLException {
+                        v1.update(memberId, money);
+                    }
+
+                    @Override
+                    public void delete(String memberId) throws SQLException {
+                        v1.delete(memberId);
+                    }
+                };
+            case "V2":
+                MemberRepositoryV2 v2 = new MemberRepositoryV2(dataSource);
+                return new MemberRepositoryEx() {
+                    @Override
+                    public Member save(Member member) throws SQLException {
+                        return v2.save(member);
+                    }
+
+                    @Override
+                    public Member findById(String memberId) throws SQLException {
+                        return v2.findById(memberId);
+                    }
+
+                    @Override
+                    public void update(String memberId, int money) throws SQLException {
+                        v2.update(memberId, money);
+                    }
+
+                    @Override
+                    public void delete(String memberId) throws SQLException {
+                        v2.delete(memberId);
+                    }
+                };
+            case "V3":
+                return new MemberRepositoryV3(dataSource);
+            case "V4_1":
+                return adapt(new MemberRepositoryV4_1(dataSource));
+            case "V4_2":
+                return adapt(new MemberRepositoryV4_2(dataSource));
+            case "V5":
+                return adapt(new MemberRepositoryV5(dataSource));
+            default:
+                throw new IllegalArgumentException("unknown version=" + version);
+        }
+    }
+
+    private static MemberRepositoryEx adapt(MemberRepository target) {
+        return new MemberRepositoryEx() {
+            @Override
+            public Member save(Member member) {
+                return target.save(member);
+            }
+
+            @Override
+            public Member findById(String memberId) {
+                return target.findById(memberId);
+            }
+
+            @Override
+            public void update(String memberId, int money) {
+                target.update(memberId, money);
+            }
+
+            @Override
+            public void delete(String memberId) {
+                target.delete(memberId);
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package hello.jdbc.jmh;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.support.EmbeddedH2;
+import hello.jdbc.support.MemberServices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서비스 세대별 accountTransfer 비용 (메모리 H2 + HikariCP)
+ * V1 은 트랜잭션 없음, V3_3/V4 는 스프링 컨테이너 없이 ProxyFactory 로 @Transactional 적용 (MemberServices)
+ * 잔액이 한쪽으로 줄지 않도록 A->B, B->A 를 번갈아 실행
+ * ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+
+    static final String MEMBER_A = "jmhA";
+    static final String MEMBER_B = "jmhB";
+
+    @Param({"V1", "V2", "V3_1", "V3_2", "V3_3", "V4"})
+    public String version;
+
+    private HikariDataSource dataSource;
+    private MemberServices.Transfer transfer;
+    private boolean reverse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = EmbeddedH2.start("service");
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+        repository.save(new Member(MEMBER_A, 1_000_000));
+        repository.save(new Member(MEMBER_B, 1_000_000));
+        transfer = MemberServices.transfer(version, dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EmbeddedH2.stop(dataSource);
+    }
+
+    @Benchmark
+    public void accountTransfer() throws Exception {
+        reverse = !reverse;
+        if (reverse) {
+            transfer.run(MEMBER_B, MEMBER_A, 1);
+        } else {
+            transfer.run(MEMBER_A, MEMBER_B, 1);
+        }
+    }
+}
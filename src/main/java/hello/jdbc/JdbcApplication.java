@@ -1,7 +1,14 @@
 package hello.jdbc;
 
+import hello.jdbc.connection.ConnectionPoolWarmUp;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
 
 @SpringBootApplication
 public class JdbcApplication {
@@ -10,4 +17,16 @@ public class JdbcApplication {
 		SpringApplication.run(JdbcApplication.class, args);
 	}
 
+	/**
+	 * ApplicationRunner 는 ReadinessState.ACCEPTING_TRAFFIC 이 발행되기 전에 실행되므로
+	 * 워밍업이 끝나야 readiness 가 올라간다
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "jdbc.warmup.enabled", havingValue = "true", matchIfMissing = true)
+	public ApplicationRunner connectionPoolWarmUp(DataSource dataSource,
+												  @Value("${jdbc.warmup.connections:0}") int connections,
+												  @Value("${jdbc.warmup.synthetic-reads:0}") int syntheticReads) {
+		return args -> new ConnectionPoolWarmUp(dataSource, connections, syntheticReads).run();
+	}
+
 }
@@ -4,5 +4,6 @@ public class ConnectionConst {
     public static final String URL = "jdbc:h2:tcp://localhost/~/db1";
     public static final String USERNAME = "sa";
     public static final String PASSWORD = "";
+    public static final String R2DBC_H2_URL = "tcp://localhost/~/db1"; //r2dbc-h2 의 url 옵션 (jdbc:h2: 뒤 부분)
 
 }
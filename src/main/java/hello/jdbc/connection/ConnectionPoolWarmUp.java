@@ -0,0 +1,136 @@
+package hello.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV5;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 기동 직후 느린 첫 요청을 줄이기 위한 워밍업
+ * 1. 커넥션 connections 개를 병렬로 동시에 꺼내서 풀을 채운다 (HikariCP 는 커넥션을 지연 생성)
+ * 2. 각 커넥션에서 Member SQL 4 개를 prepare (H2 세션의 파싱 결과 캐시)
+ * 3. syntheticReads > 0 이면 회원을 그만큼 읽어서 H2 페이지 캐시와 조회 경로를 데운다
+ *
+ * connections 가 0 이하이면 HikariCP 의 maximumPoolSize, HikariCP 가 아니면 1
+ * 중간에 실패하면 예외를 그대로 던진다 (기동 실패)
+ */
+@Slf4j
+public class ConnectionPoolWarmUp {
+
+    static final List<String> MEMBER_SQLS = List.of(
+            "insert into Member(member_id, money) values(?,?)",
+            "select member_id, money, version from Member where member_id = ?",
+            "update Member set money = ?, version = version + 1 where member_id = ?",
+            "delete from Member where member_id = ?");
+
+    /**
+     * HikariCP 는 풀이 시작되기 전에는 maximumPoolSize 를 지정하지 않으면 -1, 시작할 때 기본값 10 으로 바뀐다
+     */
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    private final DataSource dataSource;
+    private final int connections;
+    private final int syntheticReads;
+
+    public ConnectionPoolWarmUp(DataSource dataSource, int connections, int syntheticReads) {
+        this.dataSource = dataSource;
+        this.connections = connections(dataSource, connections);
+        this.syntheticReads = syntheticReads;
+    }
+
+    public void run() throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        fillPool();
+        int reads = syntheticReads > 0 ? readMembers() : 0;
+        log.info("warm-up done connections={}, syntheticReads={}, elapsed={}ms",
+                connections, reads, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * 모든 커넥션을 꺼낸 상태로 모였다가 한꺼번에 반환해야 서로 다른 커넥션 connections 개가 만들어진다
+     */
+    private void fillPool() throws SQLException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(connections);
+        CountDownLatch allAcquired = new CountDownLatch(connections);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                futures.add(executor.submit(() -> {
+                    Connection con = null;
+                    try {
+                        con = dataSource.getConnection();
+                        prepareMemberSqls(con);
+                    } finally {
+                        allAcquired.countDown();
+                        try {
+                            allAcquired.await();
+                        } finally {
+                            JdbcUtils.closeConnection(con);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException("warm-up failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void prepareMemberSqls(Connection con) throws SQLException {
+        for (String sql : MEMBER_SQLS) {
+            PreparedStatement pstmt = con.prepareStatement(sql);
+            JdbcUtils.closeStatement(pstmt);
+        }
+    }
+
+    private int readMembers() {
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+        List<String> memberIds;
+        try (Stream<Member> members = repository.scanAll(500)) {
+            memberIds = members.limit(syntheticReads).map(Member::getMemberId).collect(Collectors.toList());
+        }
+        //그 사이 삭제된 회원이 있어도 실패하지 않도록 findById 대신 findAllByIds
+        for (String memberId : memberIds) {
+            repository.findAllByIds(List.of(memberId));
+        }
+        return memberIds.size();
+    }
+
+    /**
+     * 풀 크기보다 많이 꺼내려고 하면 서로 기다리다 connectionTimeout 으로 실패하므로 maximumPoolSize 로 제한
+     */
+    private static int connections(DataSource dataSource, int connections) {
+        if (!(dataSource instanceof HikariDataSource)) {
+            return connections > 0 ? connections : 1;
+        }
+        int maximumPoolSize = ((HikariDataSource) dataSource).getMaximumPoolSize();
+        if (maximumPoolSize < 1) {
+            maximumPoolSize = HIKARI_DEFAULT_POOL_SIZE;
+        }
+        return connections > 0 ? Math.min(connections, maximumPoolSize) : maximumPoolSize;
+    }
+}
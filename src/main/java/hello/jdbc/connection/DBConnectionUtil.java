@@ -1,24 +1,87 @@
 package hello.jdbc.connection;
 
-import lombok.extern.slf4j.Slf4j;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 import static hello.jdbc.connection.ConnectionConst.*;
 
-@Slf4j
+/**
+ * 커넥션 획득 - 기본은 커넥션 풀(HikariCP), setDataSource 로 교체 가능
+ * 꺼낸 커넥션은 close() 하면 풀로 반환된다
+ *
+ * 기본 풀 설정
+ * - 최대 MAX_POOL_SIZE 개, 남는 커넥션은 MIN_IDLE 개까지 IDLE_TIMEOUT 뒤 정리
+ * - MAX_LIFETIME 이 지난 커넥션은 반환될 때 닫고 새로 만든다
+ * - 꺼낼 때 Connection.isValid 로 검증 (HikariCP 는 최근 500ms 안에 사용한 커넥션은 검증 생략)
+ */
 public class DBConnectionUtil {
+
+    public static final int MAX_POOL_SIZE = 10;
+    public static final int MIN_IDLE = 2;
+    public static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    public static final long MAX_LIFETIME_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static volatile DataSource dataSource;
+
     public static Connection getConnection() {
         Connection connection = null;
         try {
-            connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            log.info("get connection={}, class={}", connection, connection.getClass());
+            connection = dataSource().getConnection();
+            JdbcInstrumentation.connection(connection);
             return connection;
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
             throw new IllegalStateException(e);
         }
     }
+
+    /**
+     * null 이면 기본 커넥션 풀로 되돌린다
+     * 기존 기본 풀은 닫는다, 직접 넘긴 DataSource 는 넘긴 쪽에서 정리
+     */
+    public static synchronized void setDataSource(DataSource newDataSource) {
+        DataSource old = dataSource;
+        dataSource = newDataSource;
+        if (old instanceof DefaultPool) {
+            ((DefaultPool) old).close();
+        }
+    }
+
+    /**
+     * 풀 없이 호출할 때마다 DriverManager 로 새 커넥션 (TCP 연결 + 인증)
+     */
+    public static DataSource driverManager() {
+        return new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+    }
+
+    private static DataSource dataSource() {
+        DataSource current = dataSource;
+        if (current != null) {
+            return current;
+        }
+        synchronized (DBConnectionUtil.class) {
+            if (dataSource == null) {
+                dataSource = new DefaultPool();
+            }
+            return dataSource;
+        }
+    }
+
+    private static class DefaultPool extends HikariDataSource {
+        DefaultPool() {
+            setJdbcUrl(URL);
+            setUsername(USERNAME);
+            setPassword(PASSWORD);
+            setPoolName("DBConnectionUtil");
+            setMaximumPoolSize(MAX_POOL_SIZE);
+            setMinimumIdle(MIN_IDLE);
+            setIdleTimeout(IDLE_TIMEOUT_MILLIS);
+            setMaxLifetime(MAX_LIFETIME_MILLIS);
+        }
+    }
 }
@@ -0,0 +1,149 @@
+package hello.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 레포지토리 핫패스 계측 - 매 호출 INFO 로그 대신 사용
+ * - 연산별 호출 수/반영 행 수/실패 수는 항상 센다 (LongAdder, 잠금 없음)
+ * - 로그는 sampleRate 번에 한 번꼴로만 남긴다 (0 이하면 남기지 않음, 1 이면 매번)
+ * - detailed() 범위 안에서는 해당 스레드의 모든 호출을 로그로 남긴다 (요청 단위 상세 로그)
+ *
+ * 로그 출력은 logback-spring.xml 의 비동기 appender 로 보낸다
+ * 기동 시 sampleRate 는 -Djdbc.instrumentation.sample-rate=N 으로 지정, 실행 중에는 setSampleRate
+ */
+@Slf4j
+public final class JdbcInstrumentation {
+
+    public static final int DEFAULT_SAMPLE_RATE = 1000;
+    public static final String CONNECTION = "connection";
+
+    private static final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Integer> detailed = new ThreadLocal<>();
+
+    private static volatile int sampleRate = Integer.getInteger("jdbc.instrumentation.sample-rate", DEFAULT_SAMPLE_RATE);
+
+    private JdbcInstrumentation() {
+    }
+
+    /**
+     * 연산 한 번, rows 는 executeUpdate/executeBatch 가 반영한 행 수
+     */
+    public static void rows(String operation, int rows) {
+        Counter counter = counter(operation);
+        counter.calls.increment();
+        counter.rows.add(rows);
+        if (shouldLog()) {
+            log.info("{} rows={}", operation, rows);
+        }
+    }
+
+    /**
+     * executeBatch 가 돌려준 updateCounts 의 합 (문장 수가 아니라 반영된 행 수)
+     * - SUCCESS_NO_INFO 는 성공했지만 행 수를 모르므로 1행으로 본다
+     * - EXECUTE_FAILED 는 반영되지 않았으므로 0
+     */
+    public static int affectedRows(int[] updateCounts) {
+        int rows = 0;
+        for (int updateCount : updateCounts) {
+            if (updateCount == Statement.SUCCESS_NO_INFO) {
+                rows++;
+            } else if (updateCount > 0) {
+                rows += updateCount;
+            }
+        }
+        return rows;
+    }
+
+    public static void connection(Connection con) {
+        counter(CONNECTION).calls.increment();
+        if (shouldLog()) {
+            log.info("con={}, class={}", con, con.getClass());
+        }
+    }
+
+    /**
+     * 예외는 호출한 쪽에서 그대로 던진다, 여기서는 세고 (샘플링해서) 스택과 함께 남기기만 한다
+     */
+    public static void error(String operation, Exception e) {
+        counter(operation).errors.increment();
+        if (shouldLog()) {
+            log.error("{} failed", operation, e);
+        }
+    }
+
+    /**
+     * try (JdbcInstrumentation.Scope ignored = JdbcInstrumentation.detailed()) { ... }
+     * 중첩 가능, 가장 바깥 범위가 닫힐 때 해제
+     */
+    public static Scope detailed() {
+        Integer depth = detailed.get();
+        detailed.set(depth == null ? 1 : depth + 1);
+        return () -> {
+            if (depth == null) {
+                detailed.remove();
+            } else {
+                detailed.set(depth);
+            }
+        };
+    }
+
+    public static void setSampleRate(int newSampleRate) {
+        sampleRate = newSampleRate;
+    }
+
+    public static int getSampleRate() {
+        return sampleRate;
+    }
+
+    public static long getCount(String operation) {
+        Counter counter = counters.get(operation);
+        return counter == null ? 0 : counter.calls.sum();
+    }
+
+    public static long getRows(String operation) {
+        Counter counter = counters.get(operation);
+        return counter == null ? 0 : counter.rows.sum();
+    }
+
+    public static long getErrorCount(String operation) {
+        Counter counter = counters.get(operation);
+        return counter == null ? 0 : counter.errors.sum();
+    }
+
+    public static void reset() {
+        counters.clear();
+    }
+
+    private static boolean shouldLog() {
+        if (detailed.get() != null) {
+            return true;
+        }
+        int rate = sampleRate;
+        if (rate <= 0) {
+            return false;
+        }
+        return (rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0) && log.isInfoEnabled();
+    }
+
+    private static Counter counter(String operation) {
+        Counter counter = counters.get(operation);
+        return counter != null ? counter : counters.computeIfAbsent(operation, key -> new Counter());
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static class Counter {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
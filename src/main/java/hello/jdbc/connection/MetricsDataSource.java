@@ -0,0 +1,168 @@
+package hello.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 커넥션 풀 계측 - 레포지토리/트랜잭션 매니저에 넘기는 DataSource 를 감싸서 사용
+ * - acquire : getConnection() 에 걸린 시간 (풀에서 커넥션을 기다린 시간)
+ * - usage   : 커넥션을 꺼낸 뒤 close() 할 때까지 시간 (DB 작업 + 트랜잭션 시간)
+ * - active/pending : 이 DataSource 로 꺼내서 아직 반환하지 않은 커넥션 수 / getConnection() 에서 대기 중인 스레드 수
+ * - idle/total : 대상이 HikariCP 면 풀의 값, 아니면 -1
+ *
+ * acquire 가 길면 풀이 모자란 것이고, usage 가 길면 DB 쪽이 느린 것
+ */
+@Slf4j
+public class MetricsDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LatencyHistogram usageTime = new LatencyHistogram();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private ScheduledExecutorService dumpScheduler;
+
+    public MetricsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return acquire(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return acquire(() -> super.getConnection(username, password));
+    }
+
+    private Connection acquire(ConnectionSupplier supplier) throws SQLException {
+        pending.incrementAndGet();
+        long start = System.nanoTime();
+        Connection target;
+        try {
+            target = supplier.get();
+        } finally {
+            acquireTime.record(System.nanoTime() - start);
+            pending.decrementAndGet();
+        }
+        active.incrementAndGet();
+        return proxy(target, System.nanoTime());
+    }
+
+    public LatencyHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    public LatencyHistogram getUsageTime() {
+        return usageTime;
+    }
+
+    public int getActiveConnections() {
+        return active.get();
+    }
+
+    public int getPendingThreads() {
+        return pending.get();
+    }
+
+    public int getIdleConnections() {
+        HikariPoolMXBean pool = hikariPool();
+        return pool == null ? -1 : pool.getIdleConnections();
+    }
+
+    public int getTotalConnections() {
+        HikariPoolMXBean pool = hikariPool();
+        return pool == null ? -1 : pool.getTotalConnections();
+    }
+
+    public String dump() {
+        return "active=" + getActiveConnections()
+                + ", idle=" + getIdleConnections()
+                + ", total=" + getTotalConnections()
+                + ", pending=" + getPendingThreads()
+                + "\n  acquire: " + acquireTime
+                + "\n  usage:   " + usageTime;
+    }
+
+    /**
+     * period 마다 dump() 를 INFO 로그로 남긴다, close() 로 중지
+     */
+    public synchronized void startDump(Duration period) {
+        if (dumpScheduler != null) {
+            throw new IllegalStateException("dump already started");
+        }
+        dumpScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datasource-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = period.toMillis();
+        dumpScheduler.scheduleAtFixedRate(() -> log.info("connection pool {}", dump()), millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (dumpScheduler != null) {
+            dumpScheduler.shutdownNow();
+            dumpScheduler = null;
+        }
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        DataSource target = getTargetDataSource();
+        return target instanceof HikariDataSource ? ((HikariDataSource) target).getHikariPoolMXBean() : null;
+    }
+
+    private Connection proxy(Connection target, long acquiredAt) {
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(), new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Metrics[" + target + "]";
+                        case "getTargetConnection":
+                            return target;
+                        case "close":
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                usageTime.record(System.nanoTime() - acquiredAt);
+                                active.decrementAndGet();
+                            }
+                            break;
+                    }
+                    return invokeTarget(target, method, args);
+                });
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,315 @@
+package hello.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL 별 실행 시간 계측 - 레포지토리/JdbcTemplate/트랜잭션 매니저에 넘기는 DataSource 를 감싸서 사용
+ * - Statement/PreparedStatement 의 execute* 호출 시간을 정규화한 SQL 별 LatencyHistogram 에 기록
+ * - slowQueryThreshold 이상 걸린 실행은 바인드 값과 함께 WARN 로그 (slow query log)
+ *
+ * 정규화: 공백은 한 칸으로, 문자열/숫자 리터럴은 ?, in (?, ?, ...) 은 in (?) 로 묶는다
+ * PreparedStatement 는 prepare 할 때 한 번만 정규화하고, 정규화 결과도 SQL 문자열별로 캐시한다
+ * 서로 다른 SQL 이 MAX_DISTINCT_SQL 개를 넘으면 나머지는 OTHER 하나로 모은다
+ */
+@Slf4j
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    public static final int MAX_DISTINCT_SQL = 1000;
+    public static final String OTHER = "(other)";
+
+    private final long slowQueryThresholdNanos;
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public ProfilingDataSource(DataSource targetDataSource, Duration slowQueryThreshold) {
+        super(targetDataSource);
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(super.getConnection(username, password));
+    }
+
+    /**
+     * 정규화한 SQL -> 실행 시간 히스토그램
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    public LatencyHistogram getHistogram(String sql) {
+        return histograms.get(normalize(sql));
+    }
+
+    /**
+     * 누적 실행 시간이 큰 SQL 부터
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        histograms.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) ->
+                        e.getValue().getCount() * e.getValue().getMeanNanos()).reversed())
+                .forEach(e -> sb.append(e.getKey()).append("\n  ").append(e.getValue()).append('\n'));
+        return sb.toString();
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+
+    private LatencyHistogram histogram(String sql) {
+        String key = normalizeCached(sql);
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (histograms.size() >= MAX_DISTINCT_SQL) {
+            key = OTHER;
+        }
+        return histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    private String normalizeCached(String sql) {
+        String cached = normalized.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String result = normalize(sql);
+        if (normalized.size() < MAX_DISTINCT_SQL) {
+            normalized.put(sql, result);
+        }
+        return result;
+    }
+
+    static String normalize(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i + 1 < length && Character.isWhitespace(sql.charAt(i + 1))) {
+                    i++;
+                }
+                if (sb.length() > 0 && i + 1 < length) {
+                    sb.append(' ');
+                }
+            } else if (c == '\'') {
+                i = closingQuote(sql, i);
+                sb.append('?');
+            } else if (Character.isDigit(c) && !isIdentifierPart(sb)) {
+                while (i + 1 < length && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                    i++;
+                }
+                sb.append('?');
+            } else {
+                sb.append(c);
+            }
+        }
+        return collapseLists(sb.toString());
+    }
+
+    /**
+     * 문자열 안의 '' 는 따옴표 한 개, 닫는 따옴표가 없으면 마지막 위치
+     */
+    private static int closingQuote(String sql, int openingQuote) {
+        int i = openingQuote + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == '\'') {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i;
+            }
+            i++;
+        }
+        return sql.length() - 1;
+    }
+
+    private static boolean isIdentifierPart(StringBuilder sb) {
+        if (sb.length() == 0) {
+            return false;
+        }
+        char last = sb.charAt(sb.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_';
+    }
+
+    /**
+     * (?, ?, ?) -> (?)
+     */
+    private static String collapseLists(String sql) {
+        return sql.replaceAll("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)", "(?)");
+    }
+
+    private Connection proxy(Connection target) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new ProfilingConnectionHandler(target));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ProfilingConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ProfilingConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Profiling[" + target + "]";
+                case "getTargetConnection":
+                    return target;
+                case "prepareStatement":
+                    PreparedStatement prepared = (PreparedStatement) invokeTarget(target, method, args);
+                    String sql = (String) args[0];
+                    return new ProfilingStatementHandler((Connection) proxy, prepared, sql, histogram(sql)).proxy(PreparedStatement.class);
+                case "createStatement":
+                    Statement statement = (Statement) invokeTarget(target, method, args);
+                    return new ProfilingStatementHandler((Connection) proxy, statement, null, null).proxy(Statement.class);
+            }
+            return invokeTarget(target, method, args);
+        }
+    }
+
+    /**
+     * PreparedStatement 는 sql/histogram 이 정해져 있고, Statement 는 execute 의 sql 인자로 찾는다
+     */
+    private class ProfilingStatementHandler implements InvocationHandler {
+
+        private final Connection connectionProxy;
+        private final Statement target;
+        private final String sql;
+        private final LatencyHistogram histogram;
+        private Object[] binds;
+        private int bindCount;
+        private int batchSize;
+
+        ProfilingStatementHandler(Connection connectionProxy, Statement target, String sql, LatencyHistogram histogram) {
+            this.connectionProxy = connectionProxy;
+            this.target = target;
+            this.sql = sql;
+            this.histogram = histogram;
+        }
+
+        <T extends Statement> T proxy(Class<T> type) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, this));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], args[1]);
+            } else {
+                switch (name) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Profiling[" + target + "]";
+                    case "getConnection":
+                        return connectionProxy;
+                    case "addBatch":
+                        batchSize++;
+                        break;
+                    case "clearBatch":
+                        batchSize = 0;
+                        break;
+                    case "clearParameters":
+                        bindCount = 0;
+                        break;
+                }
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                String executed = sql;
+                LatencyHistogram executedHistogram = histogram;
+                if (args != null && args.length > 0 && args[0] instanceof String) {
+                    executed = (String) args[0];
+                    executedHistogram = histogram(executed);
+                }
+                if (executedHistogram != null) {
+                    executedHistogram.record(elapsed);
+                }
+                if (elapsed >= slowQueryThresholdNanos) {
+                    logSlowQuery(executed, elapsed);
+                }
+                if (method.getName().endsWith("Batch")) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private void logSlowQuery(String executed, long elapsedNanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            if (batchSize > 0) {
+                log.warn("slow query {}ms sql=[{}] batchSize={}, lastBinds={}", millis, executed, batchSize, bindsToString());
+            } else {
+                log.warn("slow query {}ms sql=[{}] binds={}", millis, executed, bindsToString());
+            }
+        }
+
+        private String bindsToString() {
+            return bindCount == 0 ? "[]" : Arrays.toString(Arrays.copyOf(binds, bindCount));
+        }
+
+        private void bind(int index, Object value) {
+            if (binds == null) {
+                binds = new Object[Math.max(index, 4)];
+            } else if (binds.length < index) {
+                binds = Arrays.copyOf(binds, Math.max(index, binds.length * 2));
+            }
+            binds[index - 1] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+    }
+}
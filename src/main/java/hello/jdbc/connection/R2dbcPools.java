@@ -0,0 +1,38 @@
+package hello.jdbc.connection;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+
+import java.time.Duration;
+
+/**
+ * H2 R2DBC 커넥션 풀 생성
+ *
+ * - r2dbc-h2 URL 은 mem/file 만 받으므로 tcp 서버는 url 옵션(jdbc:h2: 뒤 부분)으로 지정
+ * - r2dbc-pool 0.9.0 은 maxLifeTime 을 지정하지 않으면 반환된 커넥션을 매번 폐기하고 새로 연결한다
+ *   (조회 한 번에 TCP 연결 한 번, 12ms 이상) 그래서 항상 명시한다
+ */
+public final class R2dbcPools {
+
+    public static final Duration MAX_LIFE_TIME = Duration.ofMinutes(30);
+
+    private R2dbcPools() {
+    }
+
+    public static ConnectionPool h2(String url, String username, String password, int size) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .option(ConnectionFactoryOptions.DRIVER, "h2")
+                .option(Option.valueOf("url"), url)
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(size)
+                .maxSize(size)
+                .maxLifeTime(MAX_LIFE_TIME)
+                .build());
+    }
+}
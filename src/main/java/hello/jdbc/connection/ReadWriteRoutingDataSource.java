@@ -0,0 +1,171 @@
+package hello.jdbc.connection;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 읽기 전용 작업은 복제본(replica)으로, 나머지는 primary 로 보내는 DataSource
+ *
+ * 읽기 전용 작업
+ * - @Transactional(readOnly = true) 트랜잭션
+ * - 트랜잭션 밖에서 readOnly(...) 로 감싼 작업 (ReadRoutingMemberRepository 의 조회)
+ * 그 외(읽기-쓰기 트랜잭션, 표시 없는 트랜잭션 밖 작업)는 모두 primary
+ *
+ * 트랜잭션 매니저는 커넥션을 트랜잭션 시작(doBegin) 시점에 꺼내는데, 이때는 readOnly 표시가 아직 없다
+ * 트랜잭션 매니저와 레포지토리에는 LazyConnectionDataSourceProxy 로 감싸서 넘겨야
+ * 첫 SQL 실행 시점에 커넥션을 꺼내면서 readOnly 표시를 보고 라우팅한다 - lazy(...) 참고
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    public enum Balancing {
+        ROUND_ROBIN,
+        /**
+         * 꺼내서 아직 반환하지 않은 커넥션이 가장 적은 복제본
+         */
+        LEAST_IN_FLIGHT
+    }
+
+    private static final ThreadLocal<Integer> readOnlyHint = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Balancing balancing;
+    private final AtomicInteger[] inFlight;
+    private final AtomicLong next = new AtomicLong();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Balancing balancing) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.balancing = balancing;
+        this.inFlight = new AtomicInteger[this.replicas.size()];
+        for (int i = 0; i < inFlight.length; i++) {
+            inFlight[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * 트랜잭션 매니저/레포지토리에 넘길 DataSource
+     */
+    public static DataSource lazy(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * 트랜잭션 밖에서 work 가 꺼내는 커넥션을 복제본으로 보낸다, 읽기-쓰기 트랜잭션 안에서는 무시
+     */
+    public static <T> T readOnly(Supplier<T> work) {
+        Integer depth = readOnlyHint.get();
+        readOnlyHint.set(depth == null ? 1 : depth + 1);
+        try {
+            return work.get();
+        } finally {
+            if (depth == null) {
+                readOnlyHint.remove();
+            } else {
+                readOnlyHint.set(depth);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * UserCredentialsDataSourceAdapter 등이 username/password 로 꺼내는 경우 - 라우팅은 getConnection() 과 같다
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    public int getInFlight(int replicaIndex) {
+        return inFlight[replicaIndex].get();
+    }
+
+    private boolean isReadOnly() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return readOnlyHint.get() != null;
+    }
+
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        if (!isReadOnly() || replicas.isEmpty()) {
+            return opener.open(primary);
+        }
+        int index = selectReplica();
+        Connection target = opener.open(replicas.get(index));
+        inFlight[index].incrementAndGet();
+        return proxy(target, inFlight[index]);
+    }
+
+    private int selectReplica() {
+        int size = replicas.size();
+        int start = (int) (next.getAndIncrement() % size);
+        if (balancing == Balancing.ROUND_ROBIN) {
+            return start;
+        }
+
+        //같은 값이면 round-robin 순서로
+        int selected = start;
+        for (int i = 1; i < size; i++) {
+            int candidate = (start + i) % size;
+            if (inFlight[candidate].get() < inFlight[selected].get()) {
+                selected = candidate;
+            }
+        }
+        return selected;
+    }
+
+    private Connection proxy(Connection target, AtomicInteger counter) {
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(), new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Replica[" + target + "]";
+                        case "getTargetConnection":
+                            return target;
+                        case "close":
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                counter.decrementAndGet();
+                            }
+                            break;
+                    }
+                    return invokeTarget(target, method, args);
+                });
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
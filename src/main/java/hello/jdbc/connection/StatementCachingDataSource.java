@@ -0,0 +1,222 @@
+package hello.jdbc.connection;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 커넥션 단위 PreparedStatement 캐시
+ * 같은 커넥션(DataSourceUtils 로 트랜잭션에 묶인 커넥션)에서 같은 SQL 을 다시 prepareStatement(sql) 하면
+ * 새로 만들지 않고 캐시된 PreparedStatement 를 돌려준다
+ *
+ * 캐시된 PreparedStatement 의 close() 는 파라미터만 비우고 실제로 닫지 않는다
+ * 커넥션당 cacheSize 개까지 LRU 로 유지, 커넥션을 닫으면 캐시된 PreparedStatement 도 모두 닫는다
+ * 트랜잭션 매니저도 이 DataSource 로 만들어야 트랜잭션 커넥션에 캐시가 적용된다
+ */
+public class StatementCachingDataSource extends DelegatingDataSource {
+
+    public static final int DEFAULT_CACHE_SIZE = 16;
+
+    private final int cacheSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StatementCachingDataSource(DataSource targetDataSource) {
+        this(targetDataSource, DEFAULT_CACHE_SIZE);
+    }
+
+    public StatementCachingDataSource(DataSource targetDataSource, int cacheSize) {
+        super(targetDataSource);
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("cacheSize must be positive cacheSize=" + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(super.getConnection(username, password));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private Connection proxy(Connection target) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new CachingConnectionHandler(target));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class CachingConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final Map<String, CachedStatementHandler> cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatementHandler> eldest) {
+                if (size() <= cacheSize) {
+                    return false;
+                }
+                evictions.increment();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+
+        CachingConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "StatementCaching[" + target + "]";
+                case "getTargetConnection":
+                    return target;
+                case "prepareStatement":
+                    if (args.length == 1) {
+                        return prepareStatement((Connection) proxy, (String) args[0]);
+                    }
+                    break;
+                case "close":
+                    closeCachedStatements();
+                    break;
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private PreparedStatement prepareStatement(Connection proxy, String sql) throws SQLException {
+            CachedStatementHandler cached = cache.get(sql);
+            if (cached != null && !cached.inUse) {
+                hits.increment();
+                return cached.acquire();
+            }
+
+            misses.increment();
+            PreparedStatement statement = target.prepareStatement(sql);
+            if (cached != null) {
+                //같은 SQL 이 아직 사용 중(중첩 사용)이면 캐시하지 않은 PreparedStatement 를 그대로 사용
+                return statement;
+            }
+            cached = new CachedStatementHandler(proxy, statement);
+            cache.put(sql, cached);
+            return cached.acquire();
+        }
+
+        private void closeCachedStatements() {
+            for (CachedStatementHandler cached : new ArrayList<>(cache.values())) {
+                cached.evict();
+            }
+            cache.clear();
+        }
+    }
+
+    private static class CachedStatementHandler implements InvocationHandler {
+
+        private final Connection connectionProxy;
+        private final PreparedStatement target;
+        private final PreparedStatement proxy;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatementHandler(Connection connectionProxy, PreparedStatement target) {
+            this.connectionProxy = connectionProxy;
+            this.target = target;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        PreparedStatement acquire() {
+            inUse = true;
+            return proxy;
+        }
+
+        /**
+         * 사용 중이면 사용자가 close() 할 때 닫는다
+         */
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                JdbcUtils.closeStatement(target);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + target + "]";
+                case "getConnection":
+                    return connectionProxy;
+                case "isClosed":
+                    return !inUse || target.isClosed();
+                case "close":
+                    release();
+                    return null;
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private void release() throws SQLException {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            if (evicted) {
+                target.close();
+                return;
+            }
+            target.clearParameters();
+            target.clearBatch();
+        }
+    }
+}
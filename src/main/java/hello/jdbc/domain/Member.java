@@ -6,6 +6,7 @@ import lombok.Data;
 public class Member {
     private String memberId;
     private int money;
+    private long version;
 
     public Member() {
     }
@@ -14,4 +15,10 @@ public class Member {
         this.memberId = memberId;
         this.money = money;
     }
+
+    public Member(String memberId, int money, long version) {
+        this.memberId = memberId;
+        this.money = money;
+        this.version = version;
+    }
 }
@@ -0,0 +1,200 @@
+package hello.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 비동기 MemberRepository - 호출한 스레드는 JDBC 를 기다리지 않고 CompletableFuture 를 받는다
+ * target(MemberRepositoryV5 등) 호출은 전용 실행기에서 동시에 최대 concurrency 개 (커넥션 풀 크기에 맞춘다)
+ *
+ * 과부하
+ * - 실행 중 concurrency 개 + 대기 queueCapacity 개가 차 있으면 새 요청은 대기열에 넣지 않고
+ *   RejectedExecutionException 으로 실패한 future 를 바로 돌려준다 (무한정 쌓이지 않도록)
+ *
+ * 호출한 스레드의 트랜잭션에는 참여하지 않는다, 각 호출은 target 의 자동 커밋으로 실행
+ */
+public class AsyncMemberRepository implements AutoCloseable {
+
+    /**
+     * HikariCP 는 풀이 시작되기 전에는 maximumPoolSize 를 지정하지 않으면 -1, 시작할 때 기본값 10 으로 바뀐다
+     */
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    private final MemberRepository target;
+    private final ExecutorService executor;
+    private final int capacity;
+    private final Semaphore admission;
+    private final Semaphore running;
+    private final LongAdder rejected = new LongAdder();
+
+    private AsyncMemberRepository(MemberRepository target, ExecutorService executor, int concurrency, int queueCapacity) {
+        if (concurrency < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("concurrency=" + concurrency + ", queueCapacity=" + queueCapacity);
+        }
+        this.target = target;
+        this.executor = executor;
+        this.capacity = concurrency + queueCapacity;
+        this.admission = new Semaphore(capacity);
+        this.running = new Semaphore(concurrency);
+    }
+
+    /**
+     * 플랫폼 스레드 concurrency 개
+     */
+    public static AsyncMemberRepository create(MemberRepository target, int concurrency, int queueCapacity) {
+        return new AsyncMemberRepository(target, Executors.newFixedThreadPool(concurrency, threadFactory()), concurrency, queueCapacity);
+    }
+
+    /**
+     * 동시 실행 수를 HikariCP 의 maximumPoolSize 에 맞춘다
+     */
+    public static AsyncMemberRepository forPool(MemberRepository target, HikariDataSource pool, int queueCapacity) {
+        int maximumPoolSize = pool.getMaximumPoolSize();
+        return create(target, maximumPoolSize < 1 ? HIKARI_DEFAULT_POOL_SIZE : maximumPoolSize, queueCapacity);
+    }
+
+    /**
+     * 요청마다 가상 스레드 (JDK 21 이상), 동시 실행 수와 대기 수 제한은 플랫폼 스레드와 같다
+     * 빌드는 JDK 11 이라 Executors.newVirtualThreadPerTaskExecutor 를 리플렉션으로 찾는다
+     *
+     * @throws UnsupportedOperationException 가상 스레드가 없는 JDK
+     */
+    public static AsyncMemberRepository virtualThreads(MemberRepository target, int concurrency, int queueCapacity) {
+        ExecutorService executor;
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            executor = (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("가상 스레드는 JDK 21 이상에서 사용할 수 있습니다 java.version="
+                    + System.getProperty("java.version"));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("가상 스레드 실행기 생성 실패", e);
+        }
+        return new AsyncMemberRepository(target, executor, concurrency, queueCapacity);
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public CompletableFuture<Member> save(Member member) {
+        return submit(() -> target.save(member));
+    }
+
+    /**
+     * 회원이 없으면 NoSuchElementException(V5 는 EmptyResultDataAccessException) 으로 실패
+     */
+    public CompletableFuture<Member> findById(String memberId) {
+        return submit(() -> target.findById(memberId));
+    }
+
+    public CompletableFuture<Void> update(String memberId, int money) {
+        return submit(() -> {
+            target.update(memberId, money);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> delete(String memberId) {
+        return submit(() -> {
+            target.delete(memberId);
+            return null;
+        });
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 실행 중이거나 대기 중인 요청 수
+     */
+    public int getPending() {
+        return capacity - admission.availablePermits();
+    }
+
+    /**
+     * 새 요청은 거절하고, 이미 받은 요청이 끝날 때까지 최대 30초 기다린다
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        if (!admission.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("AsyncMemberRepository 과부하 pending=" + getPending()));
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> run(work, future));
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            rejected.increment();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 허가를 먼저 반납하고 future 를 완료한다
+     * 완료 콜백(thenCompose 등)에서 바로 다음 요청을 보내도 자기 자리 때문에 거절되지 않도록
+     */
+    private <T> void run(Supplier<T> work, CompletableFuture<T> future) {
+        T result;
+        try {
+            running.acquire();
+            try {
+                result = work.get();
+            } finally {
+                running.release();
+            }
+        } catch (InterruptedException e) {
+            admission.release();
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return;
+        } catch (Throwable e) {
+            admission.release();
+            future.completeExceptionally(e);
+            return;
+        }
+        admission.release();
+        future.complete(result);
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "async-member-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,324 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * findById 읽기 캐시 - MemberRepository 데코레이터
+ * 최대 maximumSize 개 LRU, ttl 이 지난 항목은 다시 조회
+ *
+ * 트랜잭션 정합성
+ * - 읽기-쓰기 트랜잭션 안의 조회는 캐시를 거치지 않고 DB 에서 읽는다 (이체 계산이 캐시 값에 의존하지 않도록)
+ * - 쓰기는 바로 무효화하고, 트랜잭션 안이면 커밋/롤백이 끝난 뒤(afterCompletion) 한 번 더 무효화
+ * - 조회 중에 무효화가 일어나면 조회한 값은 캐시에 올리지 않는다 (커밋 전에 읽은 옛 값이 남지 않도록)
+ */
+public class CachingMemberRepository implements MemberRepository {
+
+    private final MemberRepository target;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final Map<String, CachedMember> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public CachingMemberRepository(MemberRepository target, int maximumSize, Duration ttl) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive maximumSize=" + maximumSize);
+        }
+        this.target = target;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedMember> eldest) {
+                if (size() <= CachingMemberRepository.this.maximumSize) {
+                    return false;
+                }
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public Member save(Member member) {
+        Member saved = target.save(member);
+        invalidate(member.getMemberId());
+        return saved;
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        target.saveAll(members);
+        for (Member member : members) {
+            invalidate(member.getMemberId());
+        }
+    }
+
+    @Override
+    public Member upsert(Member member) {
+        Member upserted = target.upsert(member);
+        invalidate(member.getMemberId());
+        return upserted;
+    }
+
+    @Override
+    public void upsertAll(Collection<Member> members) {
+        target.upsertAll(members);
+        for (Member member : members) {
+            invalidate(member.getMemberId());
+        }
+    }
+
+    @Override
+    public Member findById(String memberId) {
+        if (inReadWriteTransaction()) {
+            return target.findById(memberId);
+        }
+
+        Member cached = get(memberId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        Member member = target.findById(memberId);
+        put(member, invalidationsBefore);
+        return member;
+    }
+
+    /**
+     * 없는 회원은 캐시하지 않는다 (findById 와 같음)
+     */
+    @Override
+    public Optional<Member> findOptionalById(String memberId) {
+        if (inReadWriteTransaction()) {
+            return target.findOptionalById(memberId);
+        }
+
+        Member cached = get(memberId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long invalidationsBefore = invalidations.get();
+        Optional<Member> member = target.findOptionalById(memberId);
+        member.ifPresent(found -> put(found, invalidationsBefore));
+        return member;
+    }
+
+    @Override
+    public Map<String, Member> findAllByIds(Collection<String> memberIds) {
+        if (inReadWriteTransaction()) {
+            return target.findAllByIds(memberIds);
+        }
+
+        Map<String, Member> result = new HashMap<>();
+        List<String> missed = new ArrayList<>();
+        for (String memberId : memberIds) {
+            Member cached = get(memberId);
+            if (cached != null) {
+                result.put(memberId, cached);
+            } else {
+                missed.add(memberId);
+            }
+        }
+        if (missed.isEmpty()) {
+            return result;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        Map<String, Member> loaded = target.findAllByIds(missed);
+        for (Member member : loaded.values()) {
+            put(member, invalidationsBefore);
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    /**
+     * 잠금 조회는 항상 DB 에서 읽는다
+     */
+    @Override
+    public Member findByIdForUpdate(String memberId) {
+        return target.findByIdForUpdate(memberId);
+    }
+
+    @Override
+    public Map<String, Member> findAllByIdsForUpdate(Collection<String> memberIds) {
+        return target.findAllByIdsForUpdate(memberIds);
+    }
+
+    @Override
+    public Stream<Member> scanAll(int fetchSize) {
+        return target.scanAll(fetchSize);
+    }
+
+    @Override
+    public void update(String memberId, int money) {
+        target.update(memberId, money);
+        invalidate(memberId);
+    }
+
+    @Override
+    public boolean updateIfVersion(String memberId, int money, long version) {
+        boolean updated = target.updateIfVersion(memberId, money, version);
+        invalidate(memberId);
+        return updated;
+    }
+
+    @Override
+    public boolean addMoney(String memberId, int delta, boolean nonNegative) {
+        boolean updated = target.addMoney(memberId, delta, nonNegative);
+        invalidate(memberId);
+        return updated;
+    }
+
+    @Override
+    public void transfer(String fromId, String toId, int money) {
+        target.transfer(fromId, toId, money);
+        invalidate(fromId);
+        invalidate(toId);
+    }
+
+    @Override
+    public void delete(String memberId) {
+        target.delete(memberId);
+        invalidate(memberId);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Member get(String memberId) {
+        synchronized (cache) {
+            CachedMember cached = cache.get(memberId);
+            if (cached == null) {
+                misses.increment();
+                return null;
+            }
+            if (System.nanoTime() - cached.loadedAt > ttlNanos) {
+                cache.remove(memberId);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return copy(cached.member);
+        }
+    }
+
+    private void put(Member member, long invalidationsBefore) {
+        CachedMember cached = new CachedMember(copy(member), System.nanoTime());
+        synchronized (cache) {
+            if (invalidations.get() == invalidationsBefore) {
+                cache.put(member.getMemberId(), cached);
+            }
+        }
+    }
+
+    private void invalidate(String memberId) {
+        evict(memberId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            writtenInTransaction().add(memberId);
+        }
+    }
+
+    private void evict(String memberId) {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            cache.remove(memberId);
+        }
+    }
+
+    /**
+     * 트랜잭션이 쓴 memberId 목록, 트랜잭션이 끝나면(커밋/롤백) 모두 다시 무효화
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> writtenInTransaction() {
+        Set<String> written = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (written != null) {
+            return written;
+        }
+
+        Set<String> newWritten = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(this, newWritten);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(CachingMemberRepository.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(CachingMemberRepository.this, newWritten);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CachingMemberRepository.this);
+                for (String memberId : newWritten) {
+                    evict(memberId);
+                }
+            }
+        });
+        return newWritten;
+    }
+
+    private static Member copy(Member member) {
+        return new Member(member.getMemberId(), member.getMoney(), member.getVersion());
+    }
+
+    private static class CachedMember {
+        private final Member member;
+        private final long loadedAt;
+
+        CachedMember(Member member, long loadedAt) {
+            this.member = member;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
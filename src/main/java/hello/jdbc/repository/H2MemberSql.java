@@ -0,0 +1,21 @@
+package hello.jdbc.repository;
+
+/**
+ * JDBC 레포지토리(V4_1, V4_2, V5)가 같이 쓰는 H2 전용 SQL
+ * MemberRepository 는 DB 에 중립적으로 두고 방언이 필요한 SQL 은 여기에 모은다
+ */
+final class H2MemberSql {
+
+    private H2MemberSql() {
+    }
+
+    /**
+     * upsert/upsertAll 의 SQL, 파라미터는 (member_id, money)
+     * 표준 MERGE ... USING - H2 의 MERGE INTO ... KEY(member_id) 는 있는 행의 version 을 올릴 수 없어서
+     * upsert 가 동시에 실행된 updateIfVersion(낙관적 락) 을 덮어쓸 수 있다
+     */
+    static final String UPSERT_SQL = "merge into Member m using (values(cast(? as varchar), cast(? as integer))) s(member_id, money)"
+            + " on m.member_id = s.member_id"
+            + " when matched then update set money = s.money, version = m.version + 1"
+            + " when not matched then insert (member_id, money) values(s.member_id, s.money)";
+}
@@ -0,0 +1,127 @@
+package hello.jdbc.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DB 시퀀스로 memberId 블록을 예약하고 메모리에서 나눠주는 생성기 (pooled 방식)
+ *
+ * 시퀀스는 increment by blockSize, next value 가 v 면 [v, v + blockSize) 가 이 인스턴스 몫
+ * 여러 서버/인스턴스가 같은 시퀀스를 써도 블록이 겹치지 않으므로 충돌하지 않는다 -> save 는 INSERT 한 번
+ * 재시작하면 쓰지 않은 나머지는 버려진다 (중간에 빈 번호가 생길 수 있음)
+ *
+ * 동시성
+ * - 블록 안에서는 AtomicLong.getAndIncrement 로 잠금 없이 나눠준다
+ * - 블록을 다 쓰면 한 스레드만 시퀀스를 조회하고, 나머지는 새 블록이 올라올 때까지 기다린다 (blockSize 번에 한 번)
+ *
+ * memberId 형식 : PREFIX + 36진수 (member_id 는 varchar(10))
+ * PREFIX "g-" 는 생성기 전용, 직접 정한 memberId 에는 쓰지 않는다
+ */
+public class MemberIdGenerator {
+
+    public static final String PREFIX = "g-";
+    public static final String DEFAULT_SEQUENCE = "member_id_seq";
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+    static final int MAX_ID_LENGTH = 10;
+
+    private final JdbcTemplate template;
+    private final String sequenceName;
+    private final int blockSize;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private final LongAdder blocks = new LongAdder();
+
+    private volatile Block block = Block.EMPTY;
+    private volatile boolean validated;
+
+    public MemberIdGenerator(DataSource dataSource) {
+        this(dataSource, DEFAULT_SEQUENCE, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param blockSize 시퀀스의 increment by 와 같아야 한다 (첫 블록을 가져올 때 확인)
+     */
+    public MemberIdGenerator(DataSource dataSource, String sequenceName, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive blockSize=" + blockSize);
+        }
+        this.template = new JdbcTemplate(dataSource);
+        this.sequenceName = sequenceName;
+        this.blockSize = blockSize;
+    }
+
+    public String nextId() {
+        return PREFIX + Long.toString(nextValue(), Character.MAX_RADIX);
+    }
+
+    long nextValue() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return value;
+            }
+            refill(current);
+        }
+    }
+
+    /**
+     * 예약한 블록 수 (시퀀스 조회 횟수)
+     */
+    public long getBlockCount() {
+        return blocks.sum();
+    }
+
+    /**
+     * 기다리는 동안 다른 스레드가 이미 새 블록을 올렸으면 조회하지 않는다
+     */
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (block != exhausted) {
+                return;
+            }
+            if (!validated) {
+                validateIncrement();
+            }
+            Long start = template.queryForObject("select next value for " + sequenceName, Long.class);
+            long end = start + blockSize;
+            int length = PREFIX.length() + Long.toString(end - 1, Character.MAX_RADIX).length();
+            if (length > MAX_ID_LENGTH) {
+                throw new IllegalStateException("memberId 가 " + MAX_ID_LENGTH + " 자를 넘습니다 sequence=" + sequenceName + ", value=" + (end - 1));
+            }
+            block = new Block(start, end);
+            blocks.increment();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * increment by 가 blockSize 보다 작으면 다른 인스턴스와 블록이 겹친다
+     */
+    private void validateIncrement() {
+        Long increment = template.queryForObject(
+                "select increment from information_schema.sequences where sequence_name = upper(?)", Long.class, sequenceName);
+        if (increment == null || increment != blockSize) {
+            throw new IllegalStateException("시퀀스 increment 와 blockSize 가 다릅니다 sequence=" + sequenceName
+                    + ", increment=" + increment + ", blockSize=" + blockSize);
+        }
+        validated = true;
+    }
+
+    private static final class Block {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
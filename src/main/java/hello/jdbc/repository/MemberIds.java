@@ -0,0 +1,40 @@
+package hello.jdbc.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * findAllByIds/findAllByIdsForUpdate 의 memberId 목록 정리
+ * null 이 섞여 있으면 두 메서드 모두 조회 전에 IllegalArgumentException
+ */
+final class MemberIds {
+
+    private MemberIds() {
+    }
+
+    /**
+     * 중복 제거, 입력 순서 유지
+     */
+    static List<String> distinct(Collection<String> memberIds) {
+        return new ArrayList<>(new LinkedHashSet<>(requireNoNulls(memberIds)));
+    }
+
+    /**
+     * 중복 제거, 정렬 - 잠금 순서를 고정해서 교착상태를 피한다
+     */
+    static List<String> sorted(Collection<String> memberIds) {
+        return new ArrayList<>(new TreeSet<>(requireNoNulls(memberIds)));
+    }
+
+    private static Collection<String> requireNoNulls(Collection<String> memberIds) {
+        for (String memberId : memberIds) {
+            if (memberId == null) {
+                throw new IllegalArgumentException("memberIds 에 null 이 있습니다 memberIds=" + memberIds);
+            }
+        }
+        return memberIds;
+    }
+}
@@ -2,12 +2,82 @@ package hello.jdbc.repository;
 
 import hello.jdbc.domain.Member;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface MemberRepository {
+
     Member save(Member member);
 
+    void saveAll(Collection<Member> members);
+
+    /**
+     * 없으면 INSERT, 있으면 money 를 바꾸고 version 을 1 올린다 - SQL 한 번 (save 후 중복 키를 잡아 조회/UPDATE 하지 않는다)
+     */
+    Member upsert(Member member);
+
+    /**
+     * upsert 를 JDBC 배치로 전송, 같은 memberId 가 여러 번 있으면 뒤의 값이 남는다
+     */
+    void upsertAll(Collection<Member> members);
+
     Member findById(String memberId);
 
+    /**
+     * 없으면 Optional.empty() - 없을 수 있는 조회(존재 확인 등)에서 예외 생성 비용 없이 사용
+     */
+    Optional<Member> findOptionalById(String memberId);
+
+    /**
+     * 없는 memberId 는 결과 Map 에 포함되지 않는다
+     */
+    Map<String, Member> findAllByIds(Collection<String> memberIds);
+
+    /**
+     * SELECT ... FOR UPDATE - 트랜잭션이 끝날 때까지 행 잠금, 트랜잭션 안에서 호출해야 한다
+     */
+    Member findByIdForUpdate(String memberId);
+
+    /**
+     * memberId 순서로 정렬해서 잠근다 (order by member_id for update)
+     * 모든 트랜잭션이 같은 순서로 잠그므로 A->B, B->A 이체가 동시에 실행돼도 교착상태가 생기지 않는다
+     */
+    Map<String, Member> findAllByIdsForUpdate(Collection<String> memberIds);
+
+    /**
+     * 전체 회원을 forward-only, read-only 커서로 fetchSize 만큼씩 가져온다
+     * 스트림을 닫아야 커넥션이 반환되므로 try-with-resources 로 사용
+     */
+    Stream<Member> scanAll(int fetchSize);
+
     void update(String memberId, int money);
 
+    /**
+     * version 이 그대로일 때만 money 를 바꾸고 version 을 1 올린다 (낙관적 락)
+     * 다른 트랜잭션이 먼저 바꿨거나 회원이 없으면 false
+     */
+    boolean updateIfVersion(String memberId, int money, long version);
+
+    /**
+     * money = money + delta, 조회 없이 UPDATE 한 번으로 반영
+     * @return 반영된 행이 있으면 true, 회원이 없으면 false
+     */
+    default boolean addMoney(String memberId, int delta) {
+        return addMoney(memberId, delta, false);
+    }
+
+    /**
+     * nonNegative 이면 반영 후 잔액이 음수가 되는 경우 반영하지 않고 false (회원이 없는 경우와 구분하지 않음)
+     */
+    boolean addMoney(String memberId, int delta, boolean nonNegative);
+
+    /**
+     * 출금(-money)/입금(+money) UPDATE 두 건을 JDBC 배치 한 번으로 전송
+     * 반영되지 않은 회원이 있으면 NoSuchElementException - 트랜잭션 안에서 호출해야 다른 한 건도 롤백된다
+     */
+    void transfer(String fromId, String toId, int money);
+
     void delete(String memberId);
 }
@@ -0,0 +1,164 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.ex.H2ExceptionTranslator;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Row;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * R2DBC(DatabaseClient) 사용 - 쿼리마다 스레드를 점유하지 않는다
+ * 트랜잭션은 R2dbcTransactionManager + TransactionalOperator, 같은 구독 안의 쿼리는 같은 커넥션을 쓴다
+ *
+ * 예외 변환
+ * DatabaseClient 는 R2dbcException 을 R2DBC 예외 종류로만 분류한다 (중복 키도 DataIntegrityViolationException)
+ * 에러 코드를 SQLException 으로 옮겨서 JDBC 레포지토리와 같은 H2ExceptionTranslator 로 다시 변환한다
+ * 그래서 중복 키는 MemberRepositoryV5 와 같은 DuplicateKeyException
+ */
+public class MemberRepositoryR2dbc implements ReactiveMemberRepository {
+
+    private static final String COLUMNS = "member_id, money, version";
+
+    private final DatabaseClient client;
+    private final SQLExceptionTranslator translator;
+
+    public MemberRepositoryR2dbc(ConnectionFactory connectionFactory) {
+        this.client = DatabaseClient.create(connectionFactory);
+        this.translator = H2ExceptionTranslator.INSTANCE;
+    }
+
+    @Override
+    public Mono<Member> save(Member member) {
+        String sql = "insert into Member(member_id, money) values(:memberId, :money)";
+        return client.sql(sql)
+                .bind("memberId", member.getMemberId())
+                .bind("money", member.getMoney())
+                .then()
+                .thenReturn(member)
+                .onErrorMap(e -> translate("save", sql, e));
+    }
+
+    @Override
+    public Mono<Member> findById(String memberId) {
+        String sql = "select " + COLUMNS + " from Member where member_id = :memberId";
+        return client.sql(sql)
+                .bind("memberId", memberId)
+                .map(MemberRepositoryR2dbc::mapRow)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new EmptyResultDataAccessException("member not found memberId=" + memberId, 1)))
+                .onErrorMap(e -> translate("findById", sql, e));
+    }
+
+    @Override
+    public Mono<Map<String, Member>> findAllByIds(Collection<String> memberIds) {
+        return findAllByIds(MemberIds.distinct(memberIds), "");
+    }
+
+    @Override
+    public Mono<Map<String, Member>> findAllByIdsForUpdate(Collection<String> memberIds) {
+        return findAllByIds(MemberIds.sorted(memberIds), " order by member_id for update");
+    }
+
+    /**
+     * :ids 는 DatabaseClient 가 컬렉션 크기만큼 ? 로 펼친다, MAX_IN_SIZE 개씩 나눠서 순서대로 조회
+     */
+    private Mono<Map<String, Member>> findAllByIds(List<String> ids, String suffix) {
+        String sql = "select " + COLUMNS + " from Member where member_id in (:ids)" + suffix;
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MemberRepositoryV5.MAX_IN_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + MemberRepositoryV5.MAX_IN_SIZE, ids.size())));
+        }
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> client.sql(sql)
+                        .bind("ids", chunk)
+                        .map(MemberRepositoryR2dbc::mapRow)
+                        .all())
+                .collect(HashMap<String, Member>::new, (result, member) -> result.put(member.getMemberId(), member))
+                .<Map<String, Member>>map(result -> result)
+                .onErrorMap(e -> translate("findAllByIds", sql, e));
+    }
+
+    @Override
+    public Flux<Member> scanAll(int fetchSize) {
+        String sql = "select " + COLUMNS + " from Member";
+        return client.sql(sql)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(MemberRepositoryR2dbc::mapRow)
+                .all()
+                .onErrorMap(e -> translate("scanAll", sql, e));
+    }
+
+    @Override
+    public Mono<Void> update(String memberId, int money) {
+        String sql = "update Member set money = :money, version = version + 1 where member_id = :memberId";
+        return client.sql(sql)
+                .bind("money", money)
+                .bind("memberId", memberId)
+                .then()
+                .onErrorMap(e -> translate("update", sql, e));
+    }
+
+    @Override
+    public Mono<Boolean> addMoney(String memberId, int delta, boolean nonNegative) {
+        String sql = "update Member set money = money + :delta, version = version + 1 where member_id = :memberId"
+                + (nonNegative ? " and money + :delta >= 0" : "");
+        return client.sql(sql)
+                .bind("delta", delta)
+                .bind("memberId", memberId)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0)
+                .onErrorMap(e -> translate("addMoney", sql, e));
+    }
+
+    @Override
+    public Mono<Void> delete(String memberId) {
+        String sql = "delete from Member where member_id = :memberId";
+        return client.sql(sql)
+                .bind("memberId", memberId)
+                .then()
+                .onErrorMap(e -> translate("delete", sql, e));
+    }
+
+    /**
+     * SELECT 절이 COLUMNS 순서로 고정된 SQL 에서만 사용 (MemberRowMapper 와 같음)
+     */
+    private static Member mapRow(Row row) {
+        return new Member(row.get(0, String.class), row.get(1, Integer.class), row.get(2, Long.class));
+    }
+
+    /**
+     * 원인이 R2dbcException 이면 에러 코드/SQLState 로 다시 변환, 변환되지 않으면 그대로 둔다
+     */
+    private Throwable translate(String task, String sql, Throwable e) {
+        R2dbcException cause = findR2dbcException(e);
+        if (cause == null) {
+            return e;
+        }
+        SQLException sqlException = new SQLException(cause.getMessage(), cause.getSqlState(), cause.getErrorCode(), cause);
+        DataAccessException translated = translator.translate(task, sql, sqlException);
+        return translated != null ? translated : e;
+    }
+
+    private static R2dbcException findR2dbcException(Throwable e) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current instanceof R2dbcException) {
+                return (R2dbcException) current;
+            }
+        }
+        return null;
+    }
+}
@@ -1,6 +1,7 @@
 package hello.jdbc.repository;
 
 import hello.jdbc.connection.DBConnectionUtil;
+import hello.jdbc.connection.JdbcInstrumentation;
 import hello.jdbc.domain.Member;
 import lombok.extern.slf4j.Slf4j;
 
@@ -11,7 +12,7 @@ import java.util.NoSuchElementException;
 public class MemberRepositoryV0 {
 
     public Member save(Member member) throws SQLException {
-        String sql = "insert into Member values(?,?)";
+        String sql = "insert into Member(member_id, money) values(?,?)";
 
         Connection con = null;
         PreparedStatement pstmt = null;
@@ -23,12 +24,12 @@ public class MemberRepositoryV0 {
             pstmt.setString(1, member.getMemberId());
             pstmt.setInt(2, member.getMoney());
             int insertSize = pstmt.executeUpdate();
-            log.info("insertSize={}", insertSize);
+            JdbcInstrumentation.rows("save", insertSize);
 
             return member;
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("save", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -36,7 +37,7 @@ public class MemberRepositoryV0 {
     }
 
     public Member findById(String memberId) throws SQLException {
-        String sql = "select * from Member where member_id = ?";
+        String sql = "select member_id, money from Member where member_id = ?";
 
         Connection con = null;
         PreparedStatement pstmt = null;
@@ -49,16 +50,13 @@ public class MemberRepositoryV0 {
             rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                Member member = new Member();
-                member.setMemberId(rs.getString("member_id"));
-                member.setMoney(rs.getInt("money"));
-                return member;
+                return MemberRowMapper.WITHOUT_VERSION.mapRow(rs, 0);
             } else {
                 throw new NoSuchElementException("member not found memberId=" + memberId);
             }
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("findById", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -78,10 +76,10 @@ public class MemberRepositoryV0 {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
             int updateSize = pstmt.executeUpdate();
-            log.info("updateSize={}", updateSize);
+            JdbcInstrumentation.rows("update", updateSize);
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("update", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -100,10 +98,10 @@ public class MemberRepositoryV0 {
             pstmt = con.prepareStatement(sql);
             pstmt.setString(1, memberId);
             int deleteSize = pstmt.executeUpdate();
-            log.info("deleteSize={}", deleteSize);
+            JdbcInstrumentation.rows("delete", deleteSize);
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("delete", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -1,15 +1,14 @@
 package hello.jdbc.repository;
 
 import hello.jdbc.connection.DBConnectionUtil;
+import hello.jdbc.connection.JdbcInstrumentation;
 import hello.jdbc.domain.Member;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.support.JdbcUtils;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.NoSuchElementException;
 
-@Slf4j
 public class MemberRepositoryV1 {
 
     private final DataSource dataSource;
@@ -19,7 +18,7 @@ public class MemberRepositoryV1 {
     }
 
     public Member save(Member member) throws SQLException {
-        String sql = "insert into Member values(?,?)";
+        String sql = "insert into Member(member_id, money) values(?,?)";
 
         Connection con = null;
         PreparedStatement pstmt = null;
@@ -31,12 +30,12 @@ public class MemberRepositoryV1 {
             pstmt.setString(1, member.getMemberId());
             pstmt.setInt(2, member.getMoney());
             int insertSize = pstmt.executeUpdate();
-            log.info("insertSize={}", insertSize);
+            JdbcInstrumentation.rows("save", insertSize);
 
             return member;
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("save", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -44,7 +43,7 @@ public class MemberRepositoryV1 {
     }
 
     public Member findById(String memberId) throws SQLException {
-        String sql = "select * from Member where member_id = ?";
+        String sql = "select member_id, money from Member where member_id = ?";
 
         Connection con = null;
         PreparedStatement pstmt = null;
@@ -57,16 +56,13 @@ public class MemberRepositoryV1 {
             rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                Member member = new Member();
-                member.setMemberId(rs.getString("member_id"));
-                member.setMoney(rs.getInt("money"));
-                return member;
+                return MemberRowMapper.WITHOUT_VERSION.mapRow(rs, 0);
             } else {
                 throw new NoSuchElementException("member not found memberId=" + memberId);
             }
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("findById", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -86,10 +82,10 @@ public class MemberRepositoryV1 {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
             int updateSize = pstmt.executeUpdate();
-            log.info("updateSize={}", updateSize);
+            JdbcInstrumentation.rows("update", updateSize);
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("update", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -108,10 +104,10 @@ public class MemberRepositoryV1 {
             pstmt = con.prepareStatement(sql);
             pstmt.setString(1, memberId);
             int deleteSize = pstmt.executeUpdate();
-            log.info("deleteSize={}", deleteSize);
+            JdbcInstrumentation.rows("delete", deleteSize);
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("delete", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -120,7 +116,7 @@ public class MemberRepositoryV1 {
 
     private Connection getConnection() throws SQLException {
         Connection con = dataSource.getConnection();
-        log.info("con={}, class={}", con, con.getClass());
+        JdbcInstrumentation.connection(con);
         return con;
     }
 
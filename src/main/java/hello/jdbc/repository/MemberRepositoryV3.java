@@ -1,8 +1,8 @@
 
 package hello.jdbc.repository;
 
+import hello.jdbc.connection.JdbcInstrumentation;
 import hello.jdbc.domain.Member;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.support.JdbcUtils;
 
@@ -15,7 +15,6 @@ import java.util.NoSuchElementException;
  * DataSourceUtils.getConnection()
  * DataSourceUtils.releaseConnection()
  */
-@Slf4j
 public class MemberRepositoryV3 implements MemberRepositoryEx {
 
     private final DataSource dataSource;
@@ -26,7 +25,7 @@ public class MemberRepositoryV3 implements MemberRepositoryEx {
 
     @Override
     public Member save(Member member) throws SQLException {
-        String sql = "insert into Member values(?,?)";
+        String sql = "insert into Member(member_id, money) values(?,?)";
 
         Connection con = null;
         PreparedStatement pstmt = null;
@@ -38,12 +37,12 @@ public class MemberRepositoryV3 implements MemberRepositoryEx {
             pstmt.setString(1, member.getMemberId());
             pstmt.setInt(2, member.getMoney());
             int insertSize = pstmt.executeUpdate();
-            log.info("insertSize={}", insertSize);
+            JdbcInstrumentation.rows("save", insertSize);
 
             return member;
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("save", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -52,7 +51,7 @@ public class MemberRepositoryV3 implements MemberRepositoryEx {
 
     @Override
     public Member findById(String memberId) throws SQLException {
-        String sql = "select * from Member where member_id = ?";
+        String sql = "select member_id, money from Member where member_id = ?";
 
         Connection con = null;
         PreparedStatement pstmt = null;
@@ -65,16 +64,13 @@ public class MemberRepositoryV3 implements MemberRepositoryEx {
             rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                Member member = new Member();
-                member.setMemberId(rs.getString("member_id"));
-                member.setMoney(rs.getInt("money"));
-                return member;
+                return MemberRowMapper.WITHOUT_VERSION.mapRow(rs, 0);
             } else {
                 throw new NoSuchElementException("member not found memberId=" + memberId);
             }
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("findById", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -95,10 +91,10 @@ public class MemberRepositoryV3 implements MemberRepositoryEx {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
             int updateSize = pstmt.executeUpdate();
-            log.info("updateSize={}", updateSize);
+            JdbcInstrumentation.rows("update", updateSize);
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("update", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -118,10 +114,10 @@ public class MemberRepositoryV3 implements MemberRepositoryEx {
             pstmt = con.prepareStatement(sql);
             pstmt.setString(1, memberId);
             int deleteSize = pstmt.executeUpdate();
-            log.info("deleteSize={}", deleteSize);
+            JdbcInstrumentation.rows("delete", deleteSize);
         } catch (SQLException e) {
 //            throw new RuntimeException(e);
-            log.error("db error", e);
+            JdbcInstrumentation.error("delete", e);
             throw e;
         } finally {
             close(con, pstmt, rs);
@@ -132,7 +128,7 @@ public class MemberRepositoryV3 implements MemberRepositoryEx {
 //        Connection con = dataSource.getConnection();
         //트랜잭션 동기화를 사용하라면 DataSourceUtils 활용 (TransactionSynchronizationManager)
         Connection con = DataSourceUtils.getConnection(dataSource);
-        log.info("con={}, class={}", con, con.getClass());
+        JdbcInstrumentation.connection(con);
         return con;
     }
 
@@ -1,36 +1,68 @@
 
 package hello.jdbc.repository;
 
+import hello.jdbc.connection.JdbcInstrumentation;
 import hello.jdbc.domain.Member;
+import hello.jdbc.repository.ex.H2ExceptionTranslator;
 import hello.jdbc.repository.ex.MyDbException;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.support.JdbcUtils;
-import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLExceptionTranslator;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * SQLExceptionTranslator 추가
+ * SQLExceptionTranslator 추가 - 기본은 공유 H2ExceptionTranslator
+ * saveAll - addBatch/executeBatch, batchSize 단위로 끊어서 전송
+ * upsert/upsertAll - MERGE, 예외는 save 와 같은 변환기를 거친다
  */
-@Slf4j
 public class MemberRepositoryV4_2 implements MemberRepository {
 
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int MAX_IN_SIZE = 500;
+
     private final DataSource dataSource;
     private final SQLExceptionTranslator exceptionTranslator;
+    private final int batchSize;
 
     public MemberRepositoryV4_2(DataSource dataSource) {
+        this(dataSource, DEFAULT_BATCH_SIZE);
+    }
+
+    public MemberRepositoryV4_2(DataSource dataSource, int batchSize) {
+        this(dataSource, batchSize, H2ExceptionTranslator.INSTANCE);
+    }
+
+    /**
+     * H2 가 아닌 DB 는 new SQLErrorCodeSQLExceptionTranslator(dataSource) 를 넘긴다
+     */
+    public MemberRepositoryV4_2(DataSource dataSource, int batchSize, SQLExceptionTranslator exceptionTranslator) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive batchSize=" + batchSize);
+        }
         this.dataSource = dataSource;
-        this.exceptionTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+        this.exceptionTranslator = exceptionTranslator;
+        this.batchSize = batchSize;
     }
 
     @Override
     public Member save(Member member) {
-        String sql = "insert into Member values(?,?)";
+        String sql = "insert into Member(member_id, money) values(?,?)";
 
         Connection con = null;
         PreparedStatement pstmt = null;
@@ -42,7 +74,7 @@ public class MemberRepositoryV4_2 implements MemberRepository {
             pstmt.setString(1, member.getMemberId());
             pstmt.setInt(2, member.getMoney());
             int insertSize = pstmt.executeUpdate();
-            log.info("insertSize={}", insertSize);
+            JdbcInstrumentation.rows("save", insertSize);
 
             return member;
         } catch (SQLException e) {
@@ -52,9 +84,102 @@ public class MemberRepositoryV4_2 implements MemberRepository {
         }
     }
 
+    /**
+     * 트랜잭션 밖에서 호출하면 실패한 청크 이전까지는 이미 반영된다. 전부 또는 전무가 필요하면 트랜잭션 안에서 호출
+     */
+    @Override
+    public void saveAll(Collection<Member> members) {
+        String sql = "insert into Member(member_id, money) values(?,?)";
+        executeBatch("saveAll", sql, members);
+    }
+
+    @Override
+    public Member upsert(Member member) {
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(H2MemberSql.UPSERT_SQL);
+            pstmt.setString(1, member.getMemberId());
+            pstmt.setInt(2, member.getMoney());
+            int mergeSize = pstmt.executeUpdate();
+            JdbcInstrumentation.rows("upsert", mergeSize);
+
+            return member;
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("upsert", H2MemberSql.UPSERT_SQL, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
+    @Override
+    public void upsertAll(Collection<Member> members) {
+        executeBatch("upsertAll", H2MemberSql.UPSERT_SQL, members);
+    }
+
+    /**
+     * (member_id, money) 두 파라미터 SQL 을 batchSize 단위로 끊어서 배치 전송
+     */
+    private void executeBatch(String task, String sql, Collection<Member> members) {
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<Member> chunk = new ArrayList<>(Math.min(batchSize, members.size()));
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            int rows = 0;
+            for (Member member : members) {
+                pstmt.setString(1, member.getMemberId());
+                pstmt.setInt(2, member.getMoney());
+                pstmt.addBatch();
+                chunk.add(member);
+
+                if (chunk.size() == batchSize) {
+                    rows += executeBatch(pstmt, chunk);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                rows += executeBatch(pstmt, chunk);
+            }
+            JdbcInstrumentation.rows(task, rows);
+        } catch (BatchUpdateException e) {
+            throw exceptionTranslator.translate(task + " failedMemberIds=" + failedMemberIds(chunk, e), sql, e);
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate(task, sql, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
     @Override
     public Member findById(String memberId) {
-        String sql = "select * from Member where member_id = ?";
+        return found(findByIdOrNull(memberId, false), memberId);
+    }
+
+    @Override
+    public Optional<Member> findOptionalById(String memberId) {
+        return Optional.ofNullable(findByIdOrNull(memberId, false));
+    }
+
+    @Override
+    public Member findByIdForUpdate(String memberId) {
+        return found(findByIdOrNull(memberId, true), memberId);
+    }
+
+    private Member found(Member member, String memberId) {
+        if (member == null) {
+            throw new NoSuchElementException("member not found memberId=" + memberId);
+        }
+        return member;
+    }
+
+    private Member findByIdOrNull(String memberId, boolean forUpdate) {
+        String sql = "select member_id, money, version from Member where member_id = ?" + (forUpdate ? " for update" : "");
 
         Connection con = null;
         PreparedStatement pstmt = null;
@@ -66,24 +191,108 @@ public class MemberRepositoryV4_2 implements MemberRepository {
             pstmt.setString(1, memberId);
             rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                Member member = new Member();
-                member.setMemberId(rs.getString("member_id"));
-                member.setMoney(rs.getInt("money"));
-                return member;
-            } else {
-                throw new NoSuchElementException("member not found memberId=" + memberId);
+            return rs.next() ? MemberRowMapper.INSTANCE.mapRow(rs, 0) : null;
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate(forUpdate ? "findByIdForUpdate" : "findById", sql, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
+    @Override
+    public Map<String, Member> findAllByIds(Collection<String> memberIds) {
+        List<String> ids = MemberIds.distinct(memberIds);
+        Map<String, Member> result = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += MAX_IN_SIZE) {
+            findAllByIds(ids.subList(from, Math.min(from + MAX_IN_SIZE, ids.size())), false, result);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Member> findAllByIdsForUpdate(Collection<String> memberIds) {
+        List<String> ids = MemberIds.sorted(memberIds);
+        Map<String, Member> result = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += MAX_IN_SIZE) {
+            findAllByIds(ids.subList(from, Math.min(from + MAX_IN_SIZE, ids.size())), true, result);
+        }
+        return result;
+    }
+
+    private void findAllByIds(List<String> memberIds, boolean forUpdate, Map<String, Member> result) {
+        String sql = "select member_id, money, version from Member where member_id in (" + String.join(",", Collections.nCopies(memberIds.size(), "?")) + ")"
+                + (forUpdate ? " order by member_id for update" : "");
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            for (int i = 0; i < memberIds.size(); i++) {
+                pstmt.setString(i + 1, memberIds.get(i));
+            }
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                Member member = MemberRowMapper.INSTANCE.mapRow(rs, result.size());
+                result.put(member.getMemberId(), member);
             }
         } catch (SQLException e) {
-            throw exceptionTranslator.translate("findById", sql, e);
+            throw exceptionTranslator.translate(forUpdate ? "findAllByIdsForUpdate" : "findAllByIds", sql, e);
         } finally {
             close(con, pstmt, rs);
         }
     }
 
+    @Override
+    public Stream<Member> scanAll(int fetchSize) {
+        String sql = "select member_id, money, version from Member";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            close(con, pstmt, rs);
+            throw exceptionTranslator.translate("scanAll", sql, e);
+        }
+
+        Connection scanCon = con;
+        PreparedStatement scanPstmt = pstmt;
+        ResultSet scanRs = rs;
+        Spliterator<Member> spliterator = new Spliterators.AbstractSpliterator<Member>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int rowNum;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Member> action) {
+                try {
+                    if (!scanRs.next()) {
+                        return false;
+                    }
+                    action.accept(MemberRowMapper.INSTANCE.mapRow(scanRs, rowNum++));
+                    return true;
+                } catch (SQLException e) {
+                    throw exceptionTranslator.translate("scanAll", sql, e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> close(scanCon, scanPstmt, scanRs));
+    }
+
     @Override
     public void update(String memberId, int money) {
-        String sql = "update Member set money = ? where member_id = ?";
+        String sql = "update Member set money = ?, version = version + 1 where member_id = ?";
 
         Connection con = null;
         PreparedStatement pstmt = null;
@@ -95,7 +304,7 @@ public class MemberRepositoryV4_2 implements MemberRepository {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
             int updateSize = pstmt.executeUpdate();
-            log.info("updateSize={}", updateSize);
+            JdbcInstrumentation.rows("update", updateSize);
         } catch (SQLException e) {
             throw exceptionTranslator.translate("update", sql, e);
         } finally {
@@ -103,6 +312,85 @@ public class MemberRepositoryV4_2 implements MemberRepository {
         }
     }
 
+    @Override
+    public boolean updateIfVersion(String memberId, int money, long version) {
+        String sql = "update Member set money = ?, version = version + 1 where member_id = ? and version = ?";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setInt(1, money);
+            pstmt.setString(2, memberId);
+            pstmt.setLong(3, version);
+            int updateSize = pstmt.executeUpdate();
+            JdbcInstrumentation.rows("updateIfVersion", updateSize);
+            return updateSize > 0;
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("updateIfVersion", sql, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
+    @Override
+    public boolean addMoney(String memberId, int delta, boolean nonNegative) {
+        String sql = nonNegative
+                ? "update Member set money = money + ?, version = version + 1 where member_id = ? and money + ? >= 0"
+                : "update Member set money = money + ?, version = version + 1 where member_id = ?";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setInt(1, delta);
+            pstmt.setString(2, memberId);
+            if (nonNegative) {
+                pstmt.setInt(3, delta);
+            }
+            int updateSize = pstmt.executeUpdate();
+            JdbcInstrumentation.rows("addMoney", updateSize);
+            return updateSize > 0;
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("addMoney", sql, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
+    @Override
+    public void transfer(String fromId, String toId, int money) {
+        String sql = "update Member set money = money + ?, version = version + 1 where member_id = ?";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setInt(1, -money);
+            pstmt.setString(2, fromId);
+            pstmt.addBatch();
+            pstmt.setInt(1, money);
+            pstmt.setString(2, toId);
+            pstmt.addBatch();
+            int[] updateSizes = pstmt.executeBatch();
+            JdbcInstrumentation.rows("transfer", JdbcInstrumentation.affectedRows(updateSizes));
+            checkUpdated(updateSizes, fromId, toId);
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("transfer", sql, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
     @Override
     public void delete(String memberId) {
         String sql = "delete from Member where member_id = ?";
@@ -116,7 +404,7 @@ public class MemberRepositoryV4_2 implements MemberRepository {
             pstmt = con.prepareStatement(sql);
             pstmt.setString(1, memberId);
             int deleteSize = pstmt.executeUpdate();
-            log.info("deleteSize={}", deleteSize);
+            JdbcInstrumentation.rows("delete", deleteSize);
         } catch (SQLException e) {
             throw exceptionTranslator.translate("delete", sql, e);
         } finally {
@@ -124,11 +412,48 @@ public class MemberRepositoryV4_2 implements MemberRepository {
         }
     }
 
+    private int executeBatch(PreparedStatement pstmt, List<Member> chunk) throws SQLException {
+        int[] updateCounts = pstmt.executeBatch();
+        chunk.clear();
+        return JdbcInstrumentation.affectedRows(updateCounts);
+    }
+
+    /**
+     * H2 는 실패한 행을 EXECUTE_FAILED 로 표시하고 나머지를 계속 실행,
+     * 첫 실패에서 멈추는 드라이버는 updateCounts 길이가 곧 실패한 행의 위치
+     */
+    private List<String> failedMemberIds(List<Member> chunk, BatchUpdateException e) {
+        int[] updateCounts = e.getUpdateCounts();
+        List<String> failed = new ArrayList<>();
+        if (updateCounts == null || updateCounts.length < chunk.size()) {
+            int failedIndex = updateCounts == null ? 0 : updateCounts.length;
+            failed.add(chunk.get(failedIndex).getMemberId());
+            return failed;
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                failed.add(chunk.get(i).getMemberId());
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * SUCCESS_NO_INFO(-2) 는 반영된 것으로 본다
+     */
+    private void checkUpdated(int[] updateSizes, String... memberIds) {
+        for (int i = 0; i < memberIds.length; i++) {
+            if (updateSizes[i] == 0) {
+                throw new NoSuchElementException("member not found memberId=" + memberIds[i]);
+            }
+        }
+    }
+
     private Connection getConnection() throws SQLException {
 //        Connection con = dataSource.getConnection();
         //트랜잭션 동기화를 사용하라면 DataSourceUtils 활용 (TransactionSynchronizationManager)
         Connection con = DataSourceUtils.getConnection(dataSource);
-        log.info("con={}, class={}", con, con.getClass());
+        JdbcInstrumentation.connection(con);
         return con;
     }
 
@@ -2,61 +2,185 @@
 package hello.jdbc.repository;
 
 import hello.jdbc.domain.Member;
+import hello.jdbc.repository.ex.H2ExceptionTranslator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.support.JdbcUtils;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * JdbcTemplate 사용
+ * 예외 변환은 공유 H2ExceptionTranslator (JdbcTemplate 마다 변환기를 만들지 않는다)
  */
 @Slf4j
 public class MemberRepositoryV5 implements MemberRepository {
 
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int MAX_IN_SIZE = 500;
+
     JdbcTemplate template;
+    private final int batchSize;
 
     public MemberRepositoryV5(DataSource dataSource) {
+        this(dataSource, DEFAULT_BATCH_SIZE);
+    }
+
+    public MemberRepositoryV5(DataSource dataSource, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive batchSize=" + batchSize);
+        }
         this.template = new JdbcTemplate(dataSource);
+        this.template.setExceptionTranslator(H2ExceptionTranslator.INSTANCE);
+        this.batchSize = batchSize;
     }
 
     @Override
     public Member save(Member member) {
-        String sql = "insert into Member values(?,?)";
+        String sql = "insert into Member(member_id, money) values(?,?)";
         template.update(sql, member.getMemberId(), member.getMoney());
         return member;
 
     }
 
+    /**
+     * 중복 키는 H2ExceptionTranslator 를 거쳐 DuplicateKeyException 으로 올라온다
+     */
+    @Override
+    public void saveAll(Collection<Member> members) {
+        String sql = "insert into Member(member_id, money) values(?,?)";
+        template.batchUpdate(sql, members, batchSize, (ps, member) -> {
+            ps.setString(1, member.getMemberId());
+            ps.setInt(2, member.getMoney());
+        });
+    }
+
+    @Override
+    public Member upsert(Member member) {
+        template.update(H2MemberSql.UPSERT_SQL, member.getMemberId(), member.getMoney());
+        return member;
+    }
+
+    @Override
+    public void upsertAll(Collection<Member> members) {
+        template.batchUpdate(H2MemberSql.UPSERT_SQL, members, batchSize, (ps, member) -> {
+            ps.setString(1, member.getMemberId());
+            ps.setInt(2, member.getMoney());
+        });
+    }
+
     @Override
     public Member findById(String memberId) {
-        String sql = "select * from Member where member_id = ?";
-        return template.queryForObject(sql, memberRowMapper(), memberId);
+        String sql = "select member_id, money, version from Member where member_id = ?";
+        return template.queryForObject(sql, MemberRowMapper.INSTANCE, memberId);
+    }
+
+    /**
+     * queryForObject 와 달리 행이 없어도 EmptyResultDataAccessException 을 만들지 않는다
+     */
+    @Override
+    public Optional<Member> findOptionalById(String memberId) {
+        String sql = "select member_id, money, version from Member where member_id = ?";
+        return template.query(sql, rs -> rs.next() ? Optional.of(MemberRowMapper.INSTANCE.mapRow(rs, 0)) : Optional.<Member>empty(), memberId);
+    }
+
+    @Override
+    public Map<String, Member> findAllByIds(Collection<String> memberIds) {
+        return findAllByIds(MemberIds.distinct(memberIds), "");
+    }
+
+    @Override
+    public Member findByIdForUpdate(String memberId) {
+        String sql = "select member_id, money, version from Member where member_id = ? for update";
+        return template.queryForObject(sql, MemberRowMapper.INSTANCE, memberId);
+    }
+
+    @Override
+    public Map<String, Member> findAllByIdsForUpdate(Collection<String> memberIds) {
+        return findAllByIds(MemberIds.sorted(memberIds), " order by member_id for update");
+    }
+
+    private Map<String, Member> findAllByIds(List<String> ids, String suffix) {
+        Map<String, Member> result = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += MAX_IN_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_IN_SIZE, ids.size()));
+            String sql = "select member_id, money, version from Member where member_id in (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")" + suffix;
+            template.query(sql, rs -> {
+                Member member = MemberRowMapper.INSTANCE.mapRow(rs, result.size());
+                result.put(member.getMemberId(), member);
+            }, chunk.toArray());
+        }
+        return result;
+    }
+
+    /**
+     * 스트림을 닫으면 JdbcTemplate 이 DataSourceUtils.releaseConnection 으로 커넥션 반환
+     */
+    @Override
+    public Stream<Member> scanAll(int fetchSize) {
+        String sql = "select member_id, money, version from Member";
+        return template.queryForStream(con -> {
+            PreparedStatement pstmt = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize);
+            return pstmt;
+        }, MemberRowMapper.INSTANCE);
     }
 
     @Override
     public void update(String memberId, int money) {
-        String sql = "update Member set money = ? where member_id = ?";
+        String sql = "update Member set money = ?, version = version + 1 where member_id = ?";
         template.update(sql, money, memberId);
     }
 
+    @Override
+    public boolean updateIfVersion(String memberId, int money, long version) {
+        String sql = "update Member set money = ?, version = version + 1 where member_id = ? and version = ?";
+        return template.update(sql, money, memberId, version) > 0;
+    }
+
+    @Override
+    public boolean addMoney(String memberId, int delta, boolean nonNegative) {
+        if (nonNegative) {
+            String sql = "update Member set money = money + ?, version = version + 1 where member_id = ? and money + ? >= 0";
+            return template.update(sql, delta, memberId, delta) > 0;
+        }
+        String sql = "update Member set money = money + ?, version = version + 1 where member_id = ?";
+        return template.update(sql, delta, memberId) > 0;
+    }
+
+    @Override
+    public void transfer(String fromId, String toId, int money) {
+        String sql = "update Member set money = money + ?, version = version + 1 where member_id = ?";
+        int[] updateSizes = template.batchUpdate(sql, List.of(new Object[]{-money, fromId}, new Object[]{money, toId}));
+        checkUpdated(updateSizes, fromId, toId);
+    }
+
     @Override
     public void delete(String memberId) {
         String sql = "delete from Member where member_id = ?";
         template.update(sql, memberId);
     }
 
-    private RowMapper<Member> memberRowMapper() {
-        return (rs, rowNum) -> {
-            Member member = new Member();
-            member.setMemberId(rs.getString("member_id"));
-            member.setMoney(rs.getInt("money"));
-            return member;
-        };
+    /**
+     * SUCCESS_NO_INFO(-2) 는 반영된 것으로 본다
+     */
+    private void checkUpdated(int[] updateSizes, String... memberIds) {
+        for (int i = 0; i < memberIds.length; i++) {
+            if (updateSizes[i] == 0) {
+                throw new NoSuchElementException("member not found memberId=" + memberIds[i]);
+            }
+        }
     }
 
 }
@@ -0,0 +1,37 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Member 매핑 - 컬럼 이름 대신 위치로 읽는다
+ * INSTANCE - SELECT 절이 "member_id, money, version" 순서로 고정된 SQL 에서만 사용
+ * WITHOUT_VERSION - "member_id, money" 만 읽는 V0~V3 용, version 은 0
+ * 상태가 없으므로 인스턴스를 공유
+ */
+public final class MemberRowMapper implements RowMapper<Member> {
+
+    public static final MemberRowMapper INSTANCE = new MemberRowMapper(true);
+    public static final MemberRowMapper WITHOUT_VERSION = new MemberRowMapper(false);
+
+    private static final int MEMBER_ID = 1;
+    private static final int MONEY = 2;
+    private static final int VERSION = 3;
+
+    private final boolean withVersion;
+
+    private MemberRowMapper(boolean withVersion) {
+        this.withVersion = withVersion;
+    }
+
+    @Override
+    public Member mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (!withVersion) {
+            return new Member(rs.getString(MEMBER_ID), rs.getInt(MONEY));
+        }
+        return new Member(rs.getString(MEMBER_ID), rs.getInt(MONEY), rs.getLong(VERSION));
+    }
+}
@@ -0,0 +1,47 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * MemberRepository 의 논블로킹 버전 - 구독해야 실행된다
+ * 예외는 MemberRepository 와 같은 DataAccessException 계층으로 전달
+ */
+public interface ReactiveMemberRepository {
+
+    Mono<Member> save(Member member);
+
+    /**
+     * 회원이 없으면 EmptyResultDataAccessException (MemberRepositoryV5 와 같음)
+     */
+    Mono<Member> findById(String memberId);
+
+    /**
+     * 없는 memberId 는 결과 Map 에 포함되지 않는다
+     */
+    Mono<Map<String, Member>> findAllByIds(Collection<String> memberIds);
+
+    /**
+     * memberId 순서로 정렬해서 잠근다, 트랜잭션 안에서 구독해야 한다
+     */
+    Mono<Map<String, Member>> findAllByIdsForUpdate(Collection<String> memberIds);
+
+    /**
+     * 전체 회원을 fetchSize 만큼씩 가져온다, 구독자가 요청한 만큼만 내려온다 (backpressure)
+     * 취소하거나 끝까지 읽으면 커넥션 반환
+     */
+    Flux<Member> scanAll(int fetchSize);
+
+    Mono<Void> update(String memberId, int money);
+
+    /**
+     * nonNegative 이면 반영 후 잔액이 음수가 되는 경우 반영하지 않고 false
+     */
+    Mono<Boolean> addMoney(String memberId, int delta, boolean nonNegative);
+
+    Mono<Void> delete(String memberId);
+}
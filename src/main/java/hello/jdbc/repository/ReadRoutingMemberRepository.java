@@ -0,0 +1,106 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.connection.ReadWriteRoutingDataSource;
+import hello.jdbc.domain.Member;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 트랜잭션 밖의 조회를 복제본으로 보내는 MemberRepository 데코레이터
+ * target 은 ReadWriteRoutingDataSource 를 쓰는 레포지토리 (MemberRepositoryV5 등, 수정 없이 그대로)
+ *
+ * 트랜잭션 안에서는 ReadWriteRoutingDataSource 가 트랜잭션의 readOnly 로 결정하므로 그대로 위임
+ * 복제본은 primary 보다 늦을 수 있으니, 방금 쓴 값을 바로 읽어야 하면 트랜잭션 안에서 조회
+ */
+public class ReadRoutingMemberRepository implements MemberRepository {
+
+    private final MemberRepository target;
+
+    public ReadRoutingMemberRepository(MemberRepository target) {
+        this.target = target;
+    }
+
+    @Override
+    public Member save(Member member) {
+        return target.save(member);
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        target.saveAll(members);
+    }
+
+    @Override
+    public Member upsert(Member member) {
+        return target.upsert(member);
+    }
+
+    @Override
+    public void upsertAll(Collection<Member> members) {
+        target.upsertAll(members);
+    }
+
+    @Override
+    public Member findById(String memberId) {
+        return ReadWriteRoutingDataSource.readOnly(() -> target.findById(memberId));
+    }
+
+    @Override
+    public Optional<Member> findOptionalById(String memberId) {
+        return ReadWriteRoutingDataSource.readOnly(() -> target.findOptionalById(memberId));
+    }
+
+    @Override
+    public Map<String, Member> findAllByIds(Collection<String> memberIds) {
+        return ReadWriteRoutingDataSource.readOnly(() -> target.findAllByIds(memberIds));
+    }
+
+    /**
+     * 잠금 조회는 항상 primary
+     */
+    @Override
+    public Member findByIdForUpdate(String memberId) {
+        return target.findByIdForUpdate(memberId);
+    }
+
+    @Override
+    public Map<String, Member> findAllByIdsForUpdate(Collection<String> memberIds) {
+        return target.findAllByIdsForUpdate(memberIds);
+    }
+
+    /**
+     * 커서를 여는 시점에 커넥션을 꺼내므로 스트림 전체가 같은 복제본에서 읽힌다
+     */
+    @Override
+    public Stream<Member> scanAll(int fetchSize) {
+        return ReadWriteRoutingDataSource.readOnly(() -> target.scanAll(fetchSize));
+    }
+
+    @Override
+    public void update(String memberId, int money) {
+        target.update(memberId, money);
+    }
+
+    @Override
+    public boolean updateIfVersion(String memberId, int money, long version) {
+        return target.updateIfVersion(memberId, money, version);
+    }
+
+    @Override
+    public boolean addMoney(String memberId, int delta, boolean nonNegative) {
+        return target.addMoney(memberId, delta, nonNegative);
+    }
+
+    @Override
+    public void transfer(String fromId, String toId, int money) {
+        target.transfer(fromId, toId, money);
+    }
+
+    @Override
+    public void delete(String memberId) {
+        target.delete(memberId);
+    }
+}
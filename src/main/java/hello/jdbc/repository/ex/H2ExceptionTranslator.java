@@ -0,0 +1,195 @@
+package hello.jdbc.repository.ex;
+
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.CannotSerializeTransactionException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PermissionDeniedDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.InvalidResultSetAccessException;
+import org.springframework.jdbc.support.SQLErrorCodes;
+import org.springframework.jdbc.support.SQLErrorCodesFactory;
+import org.springframework.jdbc.support.SQLExceptionSubclassTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+
+/**
+ * H2 전용 예외 변환기 - 모든 레포지토리가 INSTANCE 하나를 공유한다
+ *
+ * SQLErrorCodeSQLExceptionTranslator(dataSource) 는 인스턴스마다 첫 예외에서 DatabaseMetaData 로 DB 를 알아내고
+ * 예외마다 에러 코드를 문자열로 바꿔 코드 목록을 차례로 비교한다
+ * 여기서는 클래스 로딩 때 sql-error-codes.xml 의 H2 코드표를 한 번 읽어서 에러 코드 -> 종류 배열로 만들어 둔다
+ *
+ * 변환 순서 (스프링과 같은 결과)
+ * 1. 에러 코드 배열 조회
+ * 2. 없으면 SQLException 하위 타입 -> SQLState 로 변환 (SQLExceptionSubclassTranslator)
+ *
+ * toMyException - 스프링 예외 대신 MyDbException/MyDuplicateKeyException 으로 변환 (V4_1)
+ */
+public final class H2ExceptionTranslator implements SQLExceptionTranslator {
+
+    public static final H2ExceptionTranslator INSTANCE = new H2ExceptionTranslator(SQLErrorCodesFactory.getInstance().getErrorCodes("H2"));
+
+    /**
+     * 표준 SQLState - 에러 코드가 코드표에 없을 때 (R2DBC 등) 중복 키 판단에 사용
+     */
+    private static final String DUPLICATE_KEY_SQL_STATE = "23505";
+
+    /**
+     * H2 에러 코드는 5자리 (예 23505, 42122, 90046) 이므로 코드 자체를 배열 인덱스로 쓴다
+     */
+    private static final int MAX_CODE = 99_999;
+
+    private static final Kind[] KINDS = Kind.values();
+
+    /**
+     * 0 은 코드표에 없음, 나머지는 Kind.ordinal() + 1
+     */
+    private final byte[] kindByCode = new byte[MAX_CODE + 1];
+    private final SQLExceptionTranslator fallback = new SQLExceptionSubclassTranslator();
+
+    H2ExceptionTranslator(SQLErrorCodes errorCodes) {
+        //SQLErrorCodeSQLExceptionTranslator 가 비교하는 순서, 같은 코드가 여러 목록에 있으면 앞의 것이 이긴다
+        register(Kind.BAD_SQL_GRAMMAR, errorCodes.getBadSqlGrammarCodes());
+        register(Kind.INVALID_RESULT_SET_ACCESS, errorCodes.getInvalidResultSetAccessCodes());
+        register(Kind.DUPLICATE_KEY, errorCodes.getDuplicateKeyCodes());
+        register(Kind.DATA_INTEGRITY_VIOLATION, errorCodes.getDataIntegrityViolationCodes());
+        register(Kind.PERMISSION_DENIED, errorCodes.getPermissionDeniedCodes());
+        register(Kind.DATA_ACCESS_RESOURCE_FAILURE, errorCodes.getDataAccessResourceFailureCodes());
+        register(Kind.TRANSIENT_DATA_ACCESS_RESOURCE, errorCodes.getTransientDataAccessResourceCodes());
+        register(Kind.CANNOT_ACQUIRE_LOCK, errorCodes.getCannotAcquireLockCodes());
+        register(Kind.DEADLOCK_LOSER, errorCodes.getDeadlockLoserCodes());
+        register(Kind.CANNOT_SERIALIZE_TRANSACTION, errorCodes.getCannotSerializeTransactionCodes());
+    }
+
+    private void register(Kind kind, String[] codes) {
+        for (String code : codes) {
+            int errorCode;
+            try {
+                errorCode = Integer.parseInt(code.trim());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (errorCode > 0 && errorCode <= MAX_CODE && kindByCode[errorCode] == 0) {
+                kindByCode[errorCode] = (byte) (kind.ordinal() + 1);
+            }
+        }
+    }
+
+    @Override
+    public DataAccessException translate(String task, String sql, SQLException ex) {
+        SQLException sqlEx = unwrapBatch(ex);
+        Kind kind = kindOf(sqlEx.getErrorCode());
+        if (kind != null) {
+            return kind.create(task, sql, sqlEx);
+        }
+        return fallback.translate(task, sql, sqlEx);
+    }
+
+    /**
+     * 중복 키는 MyDuplicateKeyException, 나머지는 MyDbException
+     */
+    public MyDbException toMyException(SQLException ex) {
+        SQLException sqlEx = unwrapBatch(ex);
+        if (kindOf(sqlEx.getErrorCode()) == Kind.DUPLICATE_KEY || DUPLICATE_KEY_SQL_STATE.equals(sqlEx.getSQLState())) {
+            return new MyDuplicateKeyException(ex);
+        }
+        return new MyDbException(ex);
+    }
+
+    private Kind kindOf(int errorCode) {
+        if (errorCode <= 0 || errorCode > MAX_CODE) {
+            return null;
+        }
+        int index = kindByCode[errorCode];
+        return index == 0 ? null : KINDS[index - 1];
+    }
+
+    /**
+     * 배치 예외는 원인 예외의 코드로 변환한다 (SQLErrorCodeSQLExceptionTranslator 와 같음)
+     */
+    private static SQLException unwrapBatch(SQLException ex) {
+        if (ex instanceof BatchUpdateException && ex.getNextException() != null) {
+            SQLException next = ex.getNextException();
+            if (next.getErrorCode() > 0 || next.getSQLState() != null) {
+                return next;
+            }
+        }
+        return ex;
+    }
+
+    private static String buildMessage(String task, String sql, SQLException ex) {
+        return task + "; " + (sql != null ? "SQL [" + sql + "]; " : "") + ex.getMessage();
+    }
+
+    private enum Kind {
+        BAD_SQL_GRAMMAR {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new BadSqlGrammarException(task, sql != null ? sql : "", ex);
+            }
+        },
+        INVALID_RESULT_SET_ACCESS {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new InvalidResultSetAccessException(task, sql != null ? sql : "", ex);
+            }
+        },
+        DUPLICATE_KEY {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new DuplicateKeyException(buildMessage(task, sql, ex), ex);
+            }
+        },
+        DATA_INTEGRITY_VIOLATION {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new DataIntegrityViolationException(buildMessage(task, sql, ex), ex);
+            }
+        },
+        PERMISSION_DENIED {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new PermissionDeniedDataAccessException(buildMessage(task, sql, ex), ex);
+            }
+        },
+        DATA_ACCESS_RESOURCE_FAILURE {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new DataAccessResourceFailureException(buildMessage(task, sql, ex), ex);
+            }
+        },
+        TRANSIENT_DATA_ACCESS_RESOURCE {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new TransientDataAccessResourceException(buildMessage(task, sql, ex), ex);
+            }
+        },
+        CANNOT_ACQUIRE_LOCK {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new CannotAcquireLockException(buildMessage(task, sql, ex), ex);
+            }
+        },
+        DEADLOCK_LOSER {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new DeadlockLoserDataAccessException(buildMessage(task, sql, ex), ex);
+            }
+        },
+        CANNOT_SERIALIZE_TRANSACTION {
+            @Override
+            DataAccessException create(String task, String sql, SQLException ex) {
+                return new CannotSerializeTransactionException(buildMessage(task, sql, ex), ex);
+            }
+        };
+
+        abstract DataAccessException create(String task, String sql, SQLException ex);
+    }
+}
@@ -1,18 +1,36 @@
 package hello.jdbc.repository.ex;
 
+/**
+ * stackless 모드 - 예외를 만들 때 스택 트레이스를 채우지 않는다 (fillInStackTrace 비용 제거)
+ * 중복 키처럼 호출하는 쪽이 잡아서 처리하는 예상된 실패가 잦을 때 사용
+ * 원인 SQLException 의 스택 트레이스는 그대로 남으므로 어느 레포지토리에서 실패했는지는 cause 로 볼 수 있다
+ * 기본은 꺼짐, -Djdbc.exception.stackless=true 또는 setStackless(true)
+ */
 public class MyDbException extends RuntimeException {
+
+    private static volatile boolean stackless = Boolean.getBoolean("jdbc.exception.stackless");
+
     public MyDbException() {
+        super(null, null, true, !stackless);
     }
 
     public MyDbException(String message) {
-        super(message);
+        super(message, null, true, !stackless);
     }
 
     public MyDbException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, true, !stackless);
     }
 
     public MyDbException(Throwable cause) {
-        super(cause);
+        super(cause == null ? null : cause.toString(), cause, true, !stackless);
+    }
+
+    public static boolean isStackless() {
+        return stackless;
+    }
+
+    public static void setStackless(boolean stackless) {
+        MyDbException.stackless = stackless;
     }
 }
@@ -0,0 +1,83 @@
+package hello.jdbc.service;
+
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.ReactiveMemberRepository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * MemberServiceV4 의 논블로킹 버전
+ * ReactiveMemberRepository 의존, 트랜잭션은 TransactionalOperator (구독 단위로 시작/커밋/롤백)
+ *
+ * accountTransfer - 출금/입금 회원을 findAllByIds 한 번으로 조회 후 UPDATE 두 번 (V4 와 같은 로직)
+ * accountTransferDelta - 조회 없이 money = money + ? UPDATE 두 번으로 이체
+ * 자기 자신에게 이체하면 DB 에 가기 전에 IllegalArgumentException 으로 끝난다 (MemberServiceV4 와 같음)
+ */
+public class MemberServiceR2dbc {
+
+    private final ReactiveMemberRepository memberRepository;
+    private final TransactionalOperator txOperator;
+
+    public MemberServiceR2dbc(ReactiveMemberRepository memberRepository, ReactiveTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.txOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    public Mono<Void> accountTransfer(String fromId, String toId, int money) {
+        return checkDistinct(fromId, toId)
+                .then(memberRepository.findAllByIds(List.of(fromId, toId)))
+                .flatMap(members -> transfer(members, fromId, toId, money))
+                .as(txOperator::transactional);
+    }
+
+    /**
+     * 출금은 잔액이 음수가 되지 않을 때만 반영
+     */
+    public Mono<Void> accountTransferDelta(String fromId, String toId, int money) {
+        return checkDistinct(fromId, toId)
+                .then(memberRepository.addMoney(fromId, -money, true))
+                .flatMap(withdrawn -> withdrawn ? Mono.empty()
+                        : Mono.error(new IllegalStateException("잔액 부족 또는 회원 없음 memberId=" + fromId)))
+                .then(Mono.fromRunnable(() -> validation(toId)))
+                .then(memberRepository.addMoney(toId, money, false))
+                .flatMap(deposited -> deposited ? Mono.<Void>empty()
+                        : Mono.error(new NoSuchElementException("member not found memberId=" + toId)))
+                .as(txOperator::transactional);
+    }
+
+    private Mono<Void> transfer(Map<String, Member> members, String fromId, String toId, int money) {
+        return Mono.fromCallable(() -> List.of(getMember(members, fromId), getMember(members, toId)))
+                .flatMap(pair -> memberRepository.update(fromId, pair.get(0).getMoney() - money)
+                        .then(Mono.fromRunnable(() -> validation(toId)))
+                        .then(memberRepository.update(toId, pair.get(1).getMoney() + money)));
+    }
+
+    /**
+     * 같은 회원이면 findAllByIds 가 한 명으로 합쳐서 출금 UPDATE 를 입금 UPDATE 가 덮어쓴다
+     */
+    private Mono<Void> checkDistinct(String fromId, String toId) {
+        if (fromId.equals(toId)) {
+            return Mono.error(new IllegalArgumentException("자기 자신에게 이체할 수 없습니다 memberId=" + fromId));
+        }
+        return Mono.empty();
+    }
+
+    private Member getMember(Map<String, Member> members, String memberId) {
+        Member member = members.get(memberId);
+        if (member == null) {
+            throw new NoSuchElementException("member not found memberId=" + memberId);
+        }
+        return member;
+    }
+
+    private void validation(String toId) {
+        if ("ex".equals(toId)) {
+            throw new IllegalStateException("이체중 예외발생");
+        }
+    }
+}
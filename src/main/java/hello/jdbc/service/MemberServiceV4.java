@@ -2,38 +2,172 @@ package hello.jdbc.service;
 
 import hello.jdbc.domain.Member;
 import hello.jdbc.repository.MemberRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
 /**
  * 예외 누수 문제 해결
  * SQLException 제거
  * 
  * MemberRepository 인터페이스 의존
+ * 출금/입금 회원을 findAllByIds 한 번으로 조회
+ * accountTransferDelta - 조회 없이 money = money + ? UPDATE 두 번으로 이체
+ * accountTransferBatch - 출금/입금 UPDATE 를 JDBC 배치 한 번으로 전송
+ * accountTransferOptimistic - version 비교 UPDATE, 충돌하면 트랜잭션을 새로 시작해서 재시도
+ * accountTransferPessimistic - 두 회원을 memberId 순서로 한 번에 잠그고 이체, 교착상태/잠금 대기 시간 초과면 재시도
+ * 재시도는 RetryingTransactionTemplate (지수 백오프 + jitter + 재시도 예산)
  */
 @Slf4j
-@RequiredArgsConstructor
 public class MemberServiceV4 {
 
     private final MemberRepository memberRepository;
+    private final RetryingTransactionTemplate retryTemplate;
+
+    /**
+     * 재시도는 RetryingTransactionTemplate 기본값 (시도 횟수, 백오프, 재시도 예산)
+     */
+    public MemberServiceV4(MemberRepository memberRepository, PlatformTransactionManager transactionManager) {
+        this(memberRepository, new RetryingTransactionTemplate(transactionManager));
+    }
+
+    /**
+     * 재시도 예산 크기/비율을 바꾸거나 예산 없이, 또는 여러 서비스가 예산을 나눠 쓰려면 직접 만들어서 넘긴다
+     */
+    public MemberServiceV4(MemberRepository memberRepository, RetryingTransactionTemplate retryTemplate) {
+        this.memberRepository = memberRepository;
+        this.retryTemplate = retryTemplate;
+    }
 
     @Transactional
     public void accountTransfer(String fromId, String toId, int money) {
+            checkDistinct(fromId, toId);
             bizLogic(fromId, toId, money);
     }
 
+    /**
+     * 잔액을 읽지 않고 증감만 반영하므로 동시 이체에도 갱신 손실이 없다
+     * 출금은 잔액이 음수가 되지 않을 때만 반영
+     */
+    @Transactional
+    public void accountTransferDelta(String fromId, String toId, int money) {
+        checkDistinct(fromId, toId);
+        if (!memberRepository.addMoney(fromId, -money, true)) {
+            throw new IllegalStateException("잔액 부족 또는 회원 없음 memberId=" + fromId);
+        }
+        validation(toId);
+        if (!memberRepository.addMoney(toId, money)) {
+            throw new NoSuchElementException("member not found memberId=" + toId);
+        }
+    }
+
+    /**
+     * 트랜잭션 커넥션(DataSourceUtils)에서 배치 한 번으로 이체, 왕복은 배치 1회 + 커밋
+     * 잔액 검증은 하지 않는다 (accountTransfer 와 같음)
+     */
+    @Transactional
+    public void accountTransferBatch(String fromId, String toId, int money) {
+        checkDistinct(fromId, toId);
+        validation(toId);
+        memberRepository.transfer(fromId, toId, money);
+    }
+
+    /**
+     * 재시도 지표 (호출/재시도/재시도 후 성공/시도 소진/예산 소진)
+     */
+    public RetryingTransactionTemplate getRetryTemplate() {
+        return retryTemplate;
+    }
+
+    /**
+     * 충돌(OptimisticLockingFailureException, TransientDataAccessException 하위)을 재시도
+     * 시도 횟수를 다 쓰거나 재시도 예산이 바닥나면 마지막 OptimisticLockingFailureException 을 던진다
+     * 충돌이 잦은 회원 쌍에서는 예산 때문에 재시도 없이 실패할 수 있다 - 예산은 생성자에서 넘기는 RetryingTransactionTemplate 로 조정
+     */
+    public void accountTransferOptimistic(String fromId, String toId, int money) {
+        checkDistinct(fromId, toId);
+        executeWithRetry(() -> optimisticBizLogic(fromId, toId, money));
+    }
+
+    /**
+     * findAllByIdsForUpdate 로 정렬된 순서대로 잠그므로 이 메서드끼리는 교착상태가 생기지 않는다
+     * 다른 순서로 잠그는 트랜잭션과 엉키면 재시도
+     * - 잠금 대기 시간 초과(H2 50200) -> CannotAcquireLockException
+     * - 교착상태(H2 40001, SQLTransactionRollbackException) -> ConcurrencyFailureException
+     * 둘 다 ConcurrencyFailureException(TransientDataAccessException 하위)이라 재시도된다
+     * 시도 횟수를 다 쓰거나 재시도 예산이 바닥나면 마지막 예외를 그대로 던진다
+     */
+    public void accountTransferPessimistic(String fromId, String toId, int money) {
+        checkDistinct(fromId, toId);
+        executeWithRetry(() -> pessimisticBizLogic(fromId, toId, money));
+    }
+
+    /**
+     * 재시도마다 트랜잭션을 새로 시작해야 하므로 @Transactional 이 아니라 RetryingTransactionTemplate 사용
+     */
+    private void executeWithRetry(Runnable bizLogic) {
+        retryTemplate.executeWithoutResult(status -> bizLogic.run());
+    }
+
+    private void optimisticBizLogic(String fromId, String toId, int money) {
+        Map<String, Member> members = memberRepository.findAllByIds(List.of(fromId, toId));
+        Member fromMember = getMember(members, fromId);
+        Member toMember = getMember(members, toId);
+
+        updateIfVersion(fromMember, fromMember.getMoney() - money);
+        validation(toMember.getMemberId());
+        updateIfVersion(toMember, toMember.getMoney() + money);
+    }
+
+    private void updateIfVersion(Member member, int money) {
+        if (!memberRepository.updateIfVersion(member.getMemberId(), money, member.getVersion())) {
+            throw new OptimisticLockingFailureException("version 충돌 memberId=" + member.getMemberId() + ", version=" + member.getVersion());
+        }
+    }
+
+    private void pessimisticBizLogic(String fromId, String toId, int money) {
+        transfer(memberRepository.findAllByIdsForUpdate(List.of(fromId, toId)), fromId, toId, money);
+    }
+
     private void bizLogic(String fromId, String toId, int money) {
-        Member fromMember = memberRepository.findById(fromId);
-        Member toMember = memberRepository.findById(toId);
+        transfer(memberRepository.findAllByIds(List.of(fromId, toId)), fromId, toId, money);
+    }
+
+    private void transfer(Map<String, Member> members, String fromId, String toId, int money) {
+        Member fromMember = getMember(members, fromId);
+        Member toMember = getMember(members, toId);
 
         memberRepository.update(fromMember.getMemberId(), fromMember.getMoney() - money);
-        validation(toMember);
+        validation(toMember.getMemberId());
         memberRepository.update(toMember.getMemberId(), toMember.getMoney() + money);
     }
 
-    private void validation(Member toMember) {
-        if ("ex".equals(toMember.getMemberId())) {
+    /**
+     * 자기 자신에게 이체하면 findAllByIds/findAllByIdsForUpdate 가 회원 한 명으로 합쳐서
+     * 같은 조회 값으로 출금(M - money) 후 입금(M + money) 을 덮어써 잔액이 늘어난다
+     * 낙관적 이체는 첫 updateIfVersion 이 version 을 올려서 두 번째가 항상 실패하고 재시도만 반복한다
+     */
+    private void checkDistinct(String fromId, String toId) {
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("자기 자신에게 이체할 수 없습니다 memberId=" + fromId);
+        }
+    }
+
+    private Member getMember(Map<String, Member> members, String memberId) {
+        Member member = members.get(memberId);
+        if (member == null) {
+            throw new NoSuchElementException("member not found memberId=" + memberId);
+        }
+        return member;
+    }
+
+    private void validation(String toId) {
+        if ("ex".equals(toId)) {
             throw new IllegalStateException("이체중 예외발생");
         }
     }
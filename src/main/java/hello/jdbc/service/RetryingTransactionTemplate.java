@@ -0,0 +1,214 @@
+package hello.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 일시적 실패면 트랜잭션 전체를 새로 시작해서 재시도하는 TransactionTemplate
+ *
+ * 재시도 대상 - TransientDataAccessException 하위 타입만
+ * - 잠금 대기 시간 초과(CannotAcquireLockException), 교착상태, 낙관적 락 충돌 (ConcurrencyFailureException)
+ * - TransientDataAccessResourceException 등
+ * 중복 키, 문법 오류, 커넥션 실패(DataAccessResourceFailureException) 같은 NonTransient 는 바로 던진다
+ *
+ * 대기 시간 - 0 ~ min(backoffMaxMillis, backoffBaseMillis * 2^n) 중 무작위 (full jitter)
+ *
+ * 재시도 예산 - 장애 때 재시도가 부하를 몇 배로 키우지 않도록 토큰으로 제한
+ * - 호출마다 budgetRatio 개 적립 (최대 budgetMax), 재시도마다 1개 사용
+ * - 토큰이 없으면 재시도하지 않고 마지막 예외를 던진다
+ * - 평소에는 호출 수의 budgetRatio 비율까지만 재시도가 더해진다
+ * - 예산은 인스턴스 하나에 하나, 같은 인스턴스를 쓰는 호출자끼리 나눠 쓴다
+ * - 한 쌍의 회원에 몰리는 경합처럼 충돌이 계속되는 정상 부하에서도 예산이 바닥나면 실패가 늘어난다
+ *   실패보다 지연이 나은 곳은 budgetMax/budgetRatio 를 키우거나 예산 없는 생성자를 사용
+ *
+ * 이미 트랜잭션 안에서 호출하면 바깥 트랜잭션에 참여하므로 재시도하지 않는다 (롤백 전용이 된 트랜잭션을 다시 돌려도 의미 없음)
+ */
+@Slf4j
+public class RetryingTransactionTemplate {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+    public static final long DEFAULT_BACKOFF_BASE_MILLIS = 2;
+    public static final long DEFAULT_BACKOFF_MAX_MILLIS = 100;
+    public static final int DEFAULT_BUDGET_MAX = 100;
+    public static final double DEFAULT_BUDGET_RATIO = 0.2;
+
+    /**
+     * 토큰은 1/1000 단위 정수로 관리
+     */
+    private static final long MILLI = 1000;
+
+    private final TransactionTemplate txTemplate;
+    private final boolean budgeted;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final long budgetMaxMilli;
+    private final long depositMilli;
+    private final AtomicLong budgetMilli;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder budgetRejected = new LongAdder();
+
+    public RetryingTransactionTemplate(PlatformTransactionManager transactionManager) {
+        this(new TransactionTemplate(transactionManager), DEFAULT_MAX_ATTEMPTS, DEFAULT_BACKOFF_BASE_MILLIS,
+                DEFAULT_BACKOFF_MAX_MILLIS, DEFAULT_BUDGET_MAX, DEFAULT_BUDGET_RATIO);
+    }
+
+    /**
+     * 재시도 예산 없음 - maxAttempts 로만 제한
+     */
+    public RetryingTransactionTemplate(TransactionTemplate txTemplate, int maxAttempts, long backoffBaseMillis, long backoffMaxMillis) {
+        this(txTemplate, maxAttempts, backoffBaseMillis, backoffMaxMillis, false, 0, 0);
+    }
+
+    public RetryingTransactionTemplate(TransactionTemplate txTemplate, int maxAttempts, long backoffBaseMillis,
+                                       long backoffMaxMillis, int budgetMax, double budgetRatio) {
+        this(txTemplate, maxAttempts, backoffBaseMillis, backoffMaxMillis, true, budgetMax, budgetRatio);
+    }
+
+    private RetryingTransactionTemplate(TransactionTemplate txTemplate, int maxAttempts, long backoffBaseMillis,
+                                        long backoffMaxMillis, boolean budgeted, int budgetMax, double budgetRatio) {
+        if (maxAttempts < 1 || backoffBaseMillis < 0 || backoffMaxMillis < backoffBaseMillis || budgetMax < 0 || budgetRatio < 0) {
+            throw new IllegalArgumentException("maxAttempts=" + maxAttempts + ", backoffBaseMillis=" + backoffBaseMillis
+                    + ", backoffMaxMillis=" + backoffMaxMillis + ", budgetMax=" + budgetMax + ", budgetRatio=" + budgetRatio);
+        }
+        this.txTemplate = txTemplate;
+        this.budgeted = budgeted;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.budgetMaxMilli = budgetMax * MILLI;
+        this.depositMilli = Math.round(budgetRatio * MILLI);
+        this.budgetMilli = new AtomicLong(budgetMaxMilli);
+    }
+
+    public void executeWithoutResult(Consumer<TransactionStatus> action) {
+        execute(status -> {
+            action.accept(status);
+            return null;
+        });
+    }
+
+    public <T> T execute(TransactionCallback<T> action) {
+        calls.increment();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return txTemplate.execute(action);
+        }
+        deposit();
+
+        for (int attempt = 1; ; attempt++) {
+            T result;
+            try {
+                result = txTemplate.execute(action);
+            } catch (TransientDataAccessException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                if (!withdraw()) {
+                    budgetRejected.increment();
+                    log.debug("재시도 예산 소진 attempt={}, ex={}", attempt, e.toString());
+                    throw e;
+                }
+                retries.increment();
+                log.debug("트랜잭션 재시도 attempt={}, ex={}", attempt, e.toString());
+                backoff(attempt);
+                continue;
+            }
+            if (attempt > 1) {
+                recovered.increment();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 호출 수
+     */
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    /**
+     * 재시도 수 (첫 시도 제외)
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * 재시도 끝에 성공한 호출 수
+     */
+    public long getRecoveredCount() {
+        return recovered.sum();
+    }
+
+    /**
+     * maxAttempts 를 모두 쓰고 실패한 호출 수
+     */
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+
+    /**
+     * 재시도 예산이 없어서 재시도하지 않고 실패한 호출 수
+     */
+    public long getBudgetRejectedCount() {
+        return budgetRejected.sum();
+    }
+
+    /**
+     * 남은 재시도 토큰 수, 예산이 없으면 Double.POSITIVE_INFINITY
+     */
+    public double getBudgetTokens() {
+        if (!budgeted) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (double) budgetMilli.get() / MILLI;
+    }
+
+    private void deposit() {
+        if (!budgeted || depositMilli == 0) {
+            return;
+        }
+        budgetMilli.getAndUpdate(current -> Math.min(budgetMaxMilli, current + depositMilli));
+    }
+
+    private boolean withdraw() {
+        if (!budgeted) {
+            return true;
+        }
+        while (true) {
+            long current = budgetMilli.get();
+            if (current < MILLI) {
+                return false;
+            }
+            if (budgetMilli.compareAndSet(current, current - MILLI)) {
+                return true;
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("트랜잭션 재시도 대기 중 인터럽트", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+create table if not exists member (
+    member_id varchar(10),
+    money integer not null default 0,
+    version bigint default 0 not null,
+    primary key (member_id)
+);
+
+alter table member add column if not exists version bigint default 0 not null;
+
+-- MemberIdGenerator (pooled) - increment by 가 블록 크기
+create sequence if not exists member_id_seq start with 1 increment by 100;
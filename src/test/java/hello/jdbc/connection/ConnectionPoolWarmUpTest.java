@@ -0,0 +1,50 @@
+package hello.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPoolWarmUpTest {
+
+    HikariDataSource hikari;
+
+    @BeforeEach
+    void before() {
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl(URL);
+        hikari.setUsername(USERNAME);
+        hikari.setPassword(PASSWORD);
+        hikari.setMaximumPoolSize(4);
+        hikari.setMinimumIdle(0);
+    }
+
+    @AfterEach
+    void after() {
+        hikari.close();
+    }
+
+    @Test
+    void fillPoolToMaximumPoolSize() throws Exception {
+        new ConnectionPoolWarmUp(hikari, 0, 10).run();
+
+        assertThat(hikari.getHikariPoolMXBean().getTotalConnections()).isEqualTo(4);
+        assertThat(hikari.getHikariPoolMXBean().getIdleConnections()).isEqualTo(4);
+    }
+
+    @Test
+    void connectionsCappedAtMaximumPoolSize() throws Exception {
+        new ConnectionPoolWarmUp(hikari, 100, 0).run();
+
+        assertThat(hikari.getHikariPoolMXBean().getTotalConnections()).isEqualTo(4);
+    }
+
+    @Test
+    void notPooled() throws Exception {
+        new ConnectionPoolWarmUp(new DriverManagerDataSource(URL, USERNAME, PASSWORD), 0, 10).run();
+    }
+}
@@ -0,0 +1,63 @@
+package hello.jdbc.connection;
+
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV0;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+/**
+ * MemberRepositoryV0 (DBConnectionUtil) 문장당 지연시간 - DriverManager vs 기본 커넥션 풀
+ * ./gradlew benchmark --tests "*DBConnectionUtilBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class DBConnectionUtilBenchmarkTest {
+
+    static final String MEMBER_ID = "poolBench";
+    static final int WARMUP = 100;
+    static final int ROUNDS = 500;
+
+    MemberRepositoryV0 repository = new MemberRepositoryV0();
+
+    @AfterEach
+    void after() {
+        DBConnectionUtil.setDataSource(null);
+    }
+
+    @Test
+    void driverManager() throws SQLException {
+        DBConnectionUtil.setDataSource(DBConnectionUtil.driverManager());
+        run("driverManager");
+    }
+
+    @Test
+    void pooled() throws SQLException {
+        run("pooled");
+    }
+
+    /**
+     * 한 회차 = save + findById + delete (문장 3개, 커넥션 획득 3번)
+     */
+    private void run(String name) throws SQLException {
+        for (int i = 0; i < WARMUP; i++) {
+            crud();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            crud();
+        }
+        long elapsed = System.nanoTime() - start;
+        log.info("[{}] rounds={}, avg/statement={}us", name, ROUNDS, elapsed / (ROUNDS * 3L) / 1000);
+    }
+
+    private void crud() throws SQLException {
+        repository.save(new Member(MEMBER_ID, 1000));
+        repository.findById(MEMBER_ID);
+        repository.delete(MEMBER_ID);
+    }
+}
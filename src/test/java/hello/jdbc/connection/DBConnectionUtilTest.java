@@ -2,9 +2,11 @@ package hello.jdbc.connection;
 
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -12,9 +14,40 @@ import static org.junit.jupiter.api.Assertions.*;
 @Slf4j
 class DBConnectionUtilTest {
 
+    @AfterEach
+    void after() {
+        DBConnectionUtil.setDataSource(null);
+    }
+
     @Test
     void connection() {
         Connection connection = DBConnectionUtil.getConnection();
         assertThat(connection).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void pooledByDefault() throws SQLException {
+        Connection physical1 = physicalConnection();
+        Connection physical2 = physicalConnection();
+
+        //close() 한 커넥션을 다시 꺼내 쓴다
+        assertThat(physical2).isSameAs(physical1);
+    }
+
+    @Test
+    void driverManager() throws SQLException {
+        DBConnectionUtil.setDataSource(DBConnectionUtil.driverManager());
+
+        Connection physical1 = physicalConnection();
+        Connection physical2 = physicalConnection();
+
+        assertThat(physical2).isNotSameAs(physical1);
+        assertThat(physical1.isClosed()).isTrue();
+    }
+
+    private Connection physicalConnection() throws SQLException {
+        try (Connection connection = DBConnectionUtil.getConnection()) {
+            return connection.unwrap(Connection.class);
+        }
+    }
+}
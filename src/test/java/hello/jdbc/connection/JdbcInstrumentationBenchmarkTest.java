@@ -0,0 +1,96 @@
+package hello.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV1;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+
+/**
+ * 레포지토리 처리량 - 매 호출 INFO 로그(기존) vs 1/1000 샘플링 vs 로그 없음(카운터만)
+ * 테스트 클래스패스는 logback 기본 설정(동기 콘솔 출력)이므로 기존 동작과 같은 조건
+ * ./gradlew benchmark --tests "*JdbcInstrumentationBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class JdbcInstrumentationBenchmarkTest {
+
+    static final int THREADS = 8;
+    static final int OPS_PER_THREAD = 2000;
+
+    @Test
+    void everyCallVsSampled() throws Exception {
+        int sampleRateBefore = JdbcInstrumentation.getSampleRate();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(URL);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setMaximumPoolSize(THREADS);
+        MemberRepositoryV1 repository = new MemberRepositoryV1(dataSource);
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                repository.delete(memberId(t));
+                repository.save(new Member(memberId(t), 0));
+            }
+
+            List<String> results = new ArrayList<>();
+            for (int round = 0; round < 3; round++) {
+                results.add("every call  : " + run(repository, 1));
+                results.add("1 in 1000   : " + run(repository, 1000));
+                results.add("counters only: " + run(repository, 0));
+            }
+            results.forEach(result -> log.warn(result));
+        } finally {
+            JdbcInstrumentation.setSampleRate(sampleRateBefore);
+            for (int t = 0; t < THREADS; t++) {
+                repository.delete(memberId(t));
+            }
+            dataSource.close();
+        }
+    }
+
+    private String run(MemberRepositoryV1 repository, int sampleRate) throws Exception {
+        JdbcInstrumentation.setSampleRate(sampleRate);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        long start;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String memberId = memberId(t);
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        repository.update(memberId, i);
+                    }
+                    return null;
+                }));
+            }
+            ready.await();
+            start = System.nanoTime();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+        long ops = (long) THREADS * OPS_PER_THREAD;
+        return ops * 1_000_000_000L / elapsed + " ops/s";
+    }
+
+    private static String memberId(int thread) {
+        return "inst" + thread;
+    }
+}
@@ -0,0 +1,103 @@
+package hello.jdbc.connection;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV1;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcInstrumentationTest {
+
+    static final String MEMBER_ID = "instA";
+
+    final Logger logger = (Logger) LoggerFactory.getLogger(JdbcInstrumentation.class);
+    final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    final MemberRepositoryV1 repository = new MemberRepositoryV1(new DriverManagerDataSource(URL, USERNAME, PASSWORD));
+    int sampleRateBefore;
+
+    @BeforeEach
+    void before() {
+        sampleRateBefore = JdbcInstrumentation.getSampleRate();
+        JdbcInstrumentation.reset();
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void after() throws SQLException {
+        logger.detachAppender(appender);
+        JdbcInstrumentation.setSampleRate(sampleRateBefore);
+        repository.delete(MEMBER_ID);
+    }
+
+    @Test
+    void countsWithoutLogging() throws SQLException {
+        JdbcInstrumentation.setSampleRate(0);
+
+        repository.save(new Member(MEMBER_ID, 10000));
+        repository.update(MEMBER_ID, 20000);
+        repository.update(MEMBER_ID, 30000);
+
+        assertThat(JdbcInstrumentation.getCount("save")).isEqualTo(1);
+        assertThat(JdbcInstrumentation.getCount("update")).isEqualTo(2);
+        assertThat(JdbcInstrumentation.getRows("update")).isEqualTo(2);
+        assertThat(JdbcInstrumentation.getCount(JdbcInstrumentation.CONNECTION)).isEqualTo(3);
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void errorCounted() throws SQLException {
+        JdbcInstrumentation.setSampleRate(0);
+        repository.save(new Member(MEMBER_ID, 10000));
+
+        assertThatThrownBy(() -> repository.save(new Member(MEMBER_ID, 10000))).isInstanceOf(SQLException.class);
+        assertThat(JdbcInstrumentation.getErrorCount("save")).isEqualTo(1);
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void affectedRows() {
+        assertThat(JdbcInstrumentation.affectedRows(new int[]{1, 1, 0, 3})).isEqualTo(5);
+        assertThat(JdbcInstrumentation.affectedRows(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO})).isEqualTo(2);
+        assertThat(JdbcInstrumentation.affectedRows(new int[]{1, Statement.EXECUTE_FAILED, 1})).isEqualTo(2);
+        assertThat(JdbcInstrumentation.affectedRows(new int[0])).isZero();
+    }
+
+    @Test
+    void sampled() {
+        JdbcInstrumentation.setSampleRate(10);
+        for (int i = 0; i < 10_000; i++) {
+            JdbcInstrumentation.rows("sampled", 1);
+        }
+
+        assertThat(JdbcInstrumentation.getCount("sampled")).isEqualTo(10_000);
+        assertThat(appender.list).hasSizeBetween(700, 1300);
+    }
+
+    @Test
+    void detailedScope() throws SQLException {
+        JdbcInstrumentation.setSampleRate(0);
+
+        try (JdbcInstrumentation.Scope ignored = JdbcInstrumentation.detailed()) {
+            repository.save(new Member(MEMBER_ID, 10000));
+        }
+        int logged = appender.list.size();
+        repository.update(MEMBER_ID, 20000);
+
+        //con + save rows
+        assertThat(logged).isEqualTo(2);
+        assertThat(appender.list).hasSize(logged);
+    }
+}
@@ -0,0 +1,38 @@
+package hello.jdbc.connection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketBoundsCoverValue() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1_000, 123_456, 1_000_000_000L, Long.MAX_VALUE};
+        for (long value : values) {
+            long upper = LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(value));
+            assertThat(upper).isGreaterThanOrEqualTo(value);
+            //버킷 폭은 값의 1/16 이하
+            assertThat((double) upper - value).isLessThanOrEqualTo(Math.max(value / 16.0, 0));
+        }
+    }
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L); //1us ~ 1000us
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMeanNanos()).isEqualTo(500_500);
+        assertThat((double) histogram.getPercentileNanos(50)).isCloseTo(500_000, within(500_000 / 16.0));
+        assertThat((double) histogram.getPercentileNanos(99)).isCloseTo(990_000, within(990_000 / 16.0));
+        assertThat((double) histogram.getMaxNanos()).isCloseTo(1_000_000, within(1_000_000 / 16.0));
+
+        histogram.reset();
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getPercentileNanos(99)).isZero();
+    }
+}
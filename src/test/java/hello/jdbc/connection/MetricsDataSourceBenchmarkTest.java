@@ -0,0 +1,67 @@
+package hello.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+
+/**
+ * 계측 비용 - 풀에서 커넥션을 꺼내고 바로 반환하는 시간, MetricsDataSource 적용 전/후
+ * DB 작업 없이 측정하므로 계측 비용이 가장 크게 드러나는 경우
+ * ./gradlew benchmark --tests "*MetricsDataSourceBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class MetricsDataSourceBenchmarkTest {
+
+    static final int ROUNDS = 10;
+    static final int ITERATIONS = 100_000;
+
+    HikariDataSource hikari;
+
+    @BeforeEach
+    void before() {
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl(URL);
+        hikari.setUsername(USERNAME);
+        hikari.setPassword(PASSWORD);
+    }
+
+    @AfterEach
+    void after() {
+        hikari.close();
+    }
+
+    @Test
+    void overhead() throws SQLException {
+        MetricsDataSource metrics = new MetricsDataSource(hikari);
+
+        //JIT 순서 영향을 줄이기 위해 번갈아 실행하고 각자 가장 빠른 회차를 비교
+        long bestPlain = Long.MAX_VALUE;
+        long bestMetrics = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            bestPlain = Math.min(bestPlain, borrowAndReturn(hikari));
+            bestMetrics = Math.min(bestMetrics, borrowAndReturn(metrics));
+        }
+        log.info("[hikari] borrow+return={}ns", bestPlain / ITERATIONS);
+        log.info("[metrics] borrow+return={}ns", bestMetrics / ITERATIONS);
+        log.info("{}", metrics.dump());
+    }
+
+    private long borrowAndReturn(DataSource dataSource) throws SQLException {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            Connection con = dataSource.getConnection();
+            con.close();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,83 @@
+package hello.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class MetricsDataSourceTest {
+
+    HikariDataSource hikari;
+    MetricsDataSource dataSource;
+
+    @BeforeEach
+    void before() {
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl(URL);
+        hikari.setUsername(USERNAME);
+        hikari.setPassword(PASSWORD);
+        hikari.setMaximumPoolSize(1);
+        dataSource = new MetricsDataSource(hikari);
+    }
+
+    @AfterEach
+    void after() {
+        dataSource.close();
+        hikari.close();
+    }
+
+    @Test
+    void activeAndUsage() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            assertThat(dataSource.getActiveConnections()).isEqualTo(1);
+            assertThat(dataSource.getIdleConnections()).isZero();
+            Thread.sleep(20);
+        }
+
+        assertThat(dataSource.getActiveConnections()).isZero();
+        assertThat(dataSource.getIdleConnections()).isEqualTo(1);
+        assertThat(dataSource.getAcquireTime().getCount()).isEqualTo(1);
+        assertThat(dataSource.getUsageTime().getCount()).isEqualTo(1);
+        assertThat(dataSource.getUsageTime().getMaxNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        log.info("{}", dataSource.dump());
+    }
+
+    @Test
+    void pendingWhilePoolExhausted() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection con = dataSource.getConnection()) {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<?> waiting = executor.submit(() -> {
+                started.countDown();
+                try (Connection other = dataSource.getConnection()) {
+                    return null;
+                }
+            });
+            started.await();
+            while (dataSource.getPendingThreads() == 0) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            con.close();
+            waiting.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(dataSource.getPendingThreads()).isZero();
+        //두 번째 획득은 첫 번째 커넥션이 반환될 때까지 기다렸다
+        assertThat(dataSource.getAcquireTime().getMaxNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+}
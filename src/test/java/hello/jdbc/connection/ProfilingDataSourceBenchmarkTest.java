@@ -0,0 +1,56 @@
+package hello.jdbc.connection;
+
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.support.EmbeddedH2;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * ProfilingDataSource 의 SQL 한 건당 추가 비용
+ * DB 시간이 작아야 차이가 보이므로 메모리 H2 + 커넥션 하나(SingleConnectionDataSource)로 findById 반복
+ * ./gradlew benchmark --tests "*ProfilingDataSourceBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class ProfilingDataSourceBenchmarkTest {
+
+    static final int WARM_UP = 50_000;
+    static final int ITERATIONS = 500_000;
+
+    @Test
+    void overheadPerStatement() {
+        SingleConnectionDataSource target = new SingleConnectionDataSource("jdbc:h2:mem:profiling;DB_CLOSE_DELAY=-1", "sa", "", true);
+        try {
+            EmbeddedH2.createSchema(target);
+            new MemberRepositoryV5(target).save(new Member("profBench", 10000));
+            ProfilingDataSource profiling = new ProfilingDataSource(target, Duration.ofSeconds(1));
+
+            for (int round = 0; round < 5; round++) {
+                long raw = nanosPerFind(target);
+                long profiled = nanosPerFind(profiling);
+                log.warn("raw={}ns, profiled={}ns, overhead={}ns per statement", raw, profiled, profiled - raw);
+            }
+            log.warn("\n{}", profiling.dump());
+        } finally {
+            target.destroy();
+        }
+    }
+
+    private long nanosPerFind(DataSource dataSource) {
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+        for (int i = 0; i < WARM_UP; i++) {
+            repository.findById("profBench");
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            repository.findById("profBench");
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,98 @@
+package hello.jdbc.connection;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV3;
+import hello.jdbc.repository.MemberRepositoryV5;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfilingDataSourceTest {
+
+    static final String MEMBER_A = "profA";
+    static final String MEMBER_B = "profB";
+
+    final DriverManagerDataSource target = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+
+    @AfterEach
+    void after() {
+        MemberRepositoryV5 repository = new MemberRepositoryV5(target);
+        repository.delete(MEMBER_A);
+        repository.delete(MEMBER_B);
+    }
+
+    @Test
+    void normalize() {
+        assertThat(ProfilingDataSource.normalize("select *  from Member\n where member_id = 'it''s' and money > 100"))
+                .isEqualTo("select * from Member where member_id = ? and money > ?");
+        assertThat(ProfilingDataSource.normalize("select member_id from member2 where member_id in (?, ?,?)"))
+                .isEqualTo("select member_id from member2 where member_id in (?)");
+        assertThat(ProfilingDataSource.normalize("update Member set version = version + 1 where member_id = ?"))
+                .isEqualTo("update Member set version = version + ? where member_id = ?");
+    }
+
+    @Test
+    void jdbcTemplate() {
+        ProfilingDataSource dataSource = new ProfilingDataSource(target, Duration.ofMinutes(1));
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+
+        repository.save(new Member(MEMBER_A, 10000));
+        repository.save(new Member(MEMBER_B, 10000));
+        repository.findById(MEMBER_A);
+        repository.findAllByIds(List.of(MEMBER_A));
+        repository.findAllByIds(List.of(MEMBER_A, MEMBER_B));
+
+        assertThat(dataSource.getHistogram("insert into Member(member_id, money) values(?,?)").getCount()).isEqualTo(2);
+        assertThat(dataSource.getHistogram("select member_id, money, version from Member where member_id = ?").getCount()).isEqualTo(1);
+        //in 목록 길이가 달라도 같은 SQL 로 집계
+        assertThat(dataSource.getHistograms().keySet()).filteredOn(sql -> sql.contains(" in ")).hasSize(1);
+        assertThat(dataSource.getHistograms().entrySet()).filteredOn(e -> e.getKey().contains(" in "))
+                .allSatisfy(e -> assertThat(e.getValue().getCount()).isEqualTo(2));
+    }
+
+    @Test
+    void handWrittenRepository() throws SQLException {
+        ProfilingDataSource dataSource = new ProfilingDataSource(target, Duration.ofMinutes(1));
+        MemberRepositoryV3 repository = new MemberRepositoryV3(dataSource);
+
+        repository.save(new Member(MEMBER_A, 10000));
+        repository.update(MEMBER_A, 20000);
+        repository.findById(MEMBER_A);
+        repository.delete(MEMBER_A);
+
+        assertThat(dataSource.getHistograms()).hasSize(4);
+        assertThat(dataSource.getHistograms().values()).allSatisfy(histogram -> assertThat(histogram.getCount()).isEqualTo(1));
+        assertThat(dataSource.dump()).contains("update Member set money = ? where member_id = ?");
+    }
+
+    @Test
+    void slowQueryLogWithBinds() {
+        Logger logger = (Logger) LoggerFactory.getLogger(ProfilingDataSource.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            ProfilingDataSource dataSource = new ProfilingDataSource(target, Duration.ZERO);
+            new MemberRepositoryV5(dataSource).save(new Member(MEMBER_A, 10000));
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .startsWith("slow query")
+                .contains("insert into Member(member_id, money) values(?,?)")
+                .endsWith("binds=[profA, 10000]");
+    }
+}
@@ -0,0 +1,172 @@
+package hello.jdbc.connection;
+
+import hello.jdbc.connection.ReadWriteRoutingDataSource.Balancing;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepository;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.repository.ReadRoutingMemberRepository;
+import hello.jdbc.support.EmbeddedH2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.UserCredentialsDataSourceAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * primary 는 로컬 H2 서버, 복제본은 각각 별도의 메모리 H2 (스키마는 schema.sql)
+ * 같은 회원을 잔액만 다르게(primary 10000, 복제본 1/2) 넣어서 어디서 읽었는지 구분한다
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    static final String MEMBER_ID = "rwA";
+    static final String MEMBER_NEW = "rwNew";
+    static final int PRIMARY_MONEY = 10000;
+
+    final DataSource primary = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+    List<DataSource> replicas;
+
+    @BeforeEach
+    void before() {
+        new MemberRepositoryV5(primary).save(new Member(MEMBER_ID, PRIMARY_MONEY));
+        replicas = List.of(replica(1), replica(2));
+    }
+
+    @AfterEach
+    void after() {
+        MemberRepositoryV5 primaryRepository = new MemberRepositoryV5(primary);
+        primaryRepository.delete(MEMBER_ID);
+        primaryRepository.delete(MEMBER_NEW);
+        for (DataSource replica : replicas) {
+            new JdbcTemplate(replica).execute("drop all objects");
+        }
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖 findById 는 복제본을 번갈아 사용")
+    void findByIdRoundRobin() {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas, Balancing.ROUND_ROBIN);
+        MemberRepository repository = new ReadRoutingMemberRepository(new MemberRepositoryV5(routing));
+
+        int first = repository.findById(MEMBER_ID).getMoney();
+        int second = repository.findById(MEMBER_ID).getMoney();
+        int third = repository.findById(MEMBER_ID).getMoney();
+
+        assertThat(List.of(first, second)).containsExactlyInAnyOrder(1, 2);
+        assertThat(third).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("표시 없는 트랜잭션 밖 작업과 쓰기는 primary")
+    void writesGoToPrimary() {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas, Balancing.ROUND_ROBIN);
+        MemberRepository repository = new ReadRoutingMemberRepository(new MemberRepositoryV5(routing));
+
+        repository.save(new Member(MEMBER_NEW, 500));
+        repository.update(MEMBER_ID, PRIMARY_MONEY + 1);
+
+        assertThat(new MemberRepositoryV5(routing).findById(MEMBER_ID).getMoney()).isEqualTo(PRIMARY_MONEY + 1);
+        assertThat(new MemberRepositoryV5(primary).findById(MEMBER_NEW).getMoney()).isEqualTo(500);
+        for (DataSource replica : replicas) {
+            assertThat(new MemberRepositoryV5(replica).findAllByIds(List.of(MEMBER_NEW))).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("readOnly 트랜잭션은 복제본, 읽기-쓰기 트랜잭션은 findById 도 primary")
+    void transactions() {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas, Balancing.ROUND_ROBIN);
+        DataSource dataSource = ReadWriteRoutingDataSource.lazy(routing);
+        MemberRepository repository = new ReadRoutingMemberRepository(new MemberRepositoryV5(dataSource));
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        Integer readWrite = txTemplate.execute(status -> repository.findById(MEMBER_ID).getMoney());
+        txTemplate.setReadOnly(true);
+        Integer readOnly = txTemplate.execute(status -> repository.findById(MEMBER_ID).getMoney());
+
+        assertThat(readWrite).isEqualTo(PRIMARY_MONEY);
+        assertThat(readOnly).isIn(1, 2);
+    }
+
+    @Test
+    @DisplayName("username/password 를 넘겨도 같은 규칙으로 라우팅")
+    void credentials() throws SQLException {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas, Balancing.ROUND_ROBIN);
+        UserCredentialsDataSourceAdapter credentials = new UserCredentialsDataSourceAdapter();
+        credentials.setTargetDataSource(routing);
+        credentials.setUsername(USERNAME);
+        credentials.setPassword(PASSWORD);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(credentials);
+        MemberRepository repository = new ReadRoutingMemberRepository(new MemberRepositoryV5(dataSource));
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        Integer readWrite = txTemplate.execute(status -> repository.findById(MEMBER_ID).getMoney());
+        txTemplate.setReadOnly(true);
+        Integer readOnly = txTemplate.execute(status -> repository.findById(MEMBER_ID).getMoney());
+
+        assertThat(readWrite).isEqualTo(PRIMARY_MONEY);
+        assertThat(readOnly).isIn(1, 2);
+
+        try (Connection held = ReadWriteRoutingDataSource.readOnly(() -> getConnection(routing, USERNAME, PASSWORD))) {
+            assertThat(routing.getInFlight(0) + routing.getInFlight(1)).isEqualTo(1);
+        }
+        assertThat(routing.getInFlight(0) + routing.getInFlight(1)).isZero();
+    }
+
+    @Test
+    @DisplayName("LEAST_IN_FLIGHT - 커넥션을 잡고 있는 복제본은 피한다")
+    void leastInFlight() throws SQLException {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas, Balancing.LEAST_IN_FLIGHT);
+        MemberRepository repository = new ReadRoutingMemberRepository(new MemberRepositoryV5(routing));
+
+        try (Connection held = ReadWriteRoutingDataSource.readOnly(() -> getConnection(routing))) {
+            int busy = routing.getInFlight(0) == 1 ? 0 : 1;
+            assertThat(routing.getInFlight(busy)).isEqualTo(1);
+
+            for (int i = 0; i < 4; i++) {
+                assertThat(repository.findById(MEMBER_ID).getMoney()).isEqualTo(busy == 0 ? 2 : 1);
+            }
+        }
+
+        assertThat(routing.getInFlight(0)).isZero();
+        assertThat(routing.getInFlight(1)).isZero();
+    }
+
+    /**
+     * HikariDataSource 는 getConnection(username, password) 를 지원하지 않으므로 풀 없이 만들고 스키마만 적용
+     */
+    private DataSource replica(int number) {
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica" + number + ";DB_CLOSE_DELAY=-1", "sa", "");
+        EmbeddedH2.createSchema(replica);
+        new MemberRepositoryV5(replica).save(new Member(MEMBER_ID, number));
+        return replica;
+    }
+
+    private static Connection getConnection(DataSource dataSource, String username, String password) {
+        try {
+            return dataSource.getConnection(username, password);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Connection getConnection(DataSource dataSource) {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
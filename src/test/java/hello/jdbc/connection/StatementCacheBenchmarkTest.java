@@ -0,0 +1,80 @@
+package hello.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV3;
+import hello.jdbc.service.MemberServiceV3_1;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+
+/**
+ * accountTransfer 지연시간 - PreparedStatement 캐시 적용 전/후
+ * ./gradlew benchmark --tests "*StatementCacheBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class StatementCacheBenchmarkTest {
+
+    static final String MEMBER_A = "memberA";
+    static final String MEMBER_B = "memberB";
+    static final int WARMUP = 1_000;
+    static final int TRANSFERS = 5_000;
+
+    HikariDataSource hikari;
+
+    @BeforeEach
+    void before() {
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl(URL);
+        hikari.setUsername(USERNAME);
+        hikari.setPassword(PASSWORD);
+    }
+
+    @AfterEach
+    void after() throws SQLException {
+        MemberRepositoryV3 repository = new MemberRepositoryV3(hikari);
+        repository.delete(MEMBER_A);
+        repository.delete(MEMBER_B);
+        hikari.close();
+    }
+
+    @Test
+    void withoutCache() throws SQLException {
+        run("no cache", hikari);
+    }
+
+    @Test
+    void withCache() throws SQLException {
+        StatementCachingDataSource dataSource = new StatementCachingDataSource(hikari);
+        run("statement cache", dataSource);
+        log.info("[statement cache] hits={}, misses={}, hitRate={}",
+                dataSource.getHitCount(), dataSource.getMissCount(), String.format("%.2f", dataSource.getHitRate()));
+    }
+
+    private void run(String name, DataSource dataSource) throws SQLException {
+        MemberRepositoryV3 repository = new MemberRepositoryV3(dataSource);
+        MemberServiceV3_1 service = new MemberServiceV3_1(new DataSourceTransactionManager(dataSource), repository);
+        repository.save(new Member(MEMBER_A, 1_000_000));
+        repository.save(new Member(MEMBER_B, 1_000_000));
+
+        for (int i = 0; i < WARMUP; i++) {
+            service.accountTransfer(MEMBER_A, MEMBER_B, 1);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSFERS; i++) {
+            service.accountTransfer(MEMBER_A, MEMBER_B, 1);
+        }
+        long elapsed = System.nanoTime() - start;
+        log.info("[{}] transfers={}, avg={}us", name, TRANSFERS, elapsed / TRANSFERS / 1000);
+    }
+}
@@ -0,0 +1,87 @@
+package hello.jdbc.connection;
+
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV3;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCachingDataSourceTest {
+
+    static final String MEMBER_A = "memberA";
+
+    StatementCachingDataSource dataSource = new StatementCachingDataSource(new DriverManagerDataSource(URL, USERNAME, PASSWORD));
+    MemberRepositoryV3 memberRepository = new MemberRepositoryV3(dataSource);
+
+    @AfterEach
+    void after() throws SQLException {
+        memberRepository.delete(MEMBER_A);
+    }
+
+    @Test
+    @DisplayName("같은 트랜잭션 커넥션에서 같은 SQL 은 캐시 적중")
+    void hitInTransaction() throws SQLException {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        long hitsBefore = dataSource.getHitCount();
+
+        txTemplate.executeWithoutResult(status -> {
+            try {
+                memberRepository.findById(MEMBER_A);
+                memberRepository.findById(MEMBER_A);
+                memberRepository.update(MEMBER_A, 20000);
+                memberRepository.update(MEMBER_A, 30000);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(dataSource.getHitCount() - hitsBefore).isEqualTo(2);
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(30000);
+    }
+
+    @Test
+    @DisplayName("커넥션을 닫으면 캐시도 비워진다")
+    void invalidateOnClose() throws SQLException {
+        String sql = "select * from Member where member_id = ?";
+        try (Connection con = dataSource.getConnection()) {
+            con.prepareStatement(sql).close();
+            con.prepareStatement(sql).close();
+        }
+        long missesBefore = dataSource.getMissCount();
+
+        try (Connection con = dataSource.getConnection()) {
+            con.prepareStatement(sql).close();
+        }
+
+        assertThat(dataSource.getMissCount() - missesBefore).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("캐시 크기를 넘으면 LRU 로 밀어내고, 사용 중인 같은 SQL 은 캐시하지 않고 새로 만든다")
+    void evictionAndNestedUse() throws SQLException {
+        StatementCachingDataSource smallCache = new StatementCachingDataSource(new DriverManagerDataSource(URL, USERNAME, PASSWORD), 1);
+
+        try (Connection con = smallCache.getConnection()) {
+            PreparedStatement first = con.prepareStatement("select 1");
+            PreparedStatement nested = con.prepareStatement("select 1");
+            assertThat(nested).isNotSameAs(first);
+            nested.close();
+            first.close();
+
+            con.prepareStatement("select 2").close();
+            assertThat(smallCache.getEvictionCount()).isEqualTo(1);
+            assertThat(smallCache.getMissCount()).isEqualTo(3);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package hello.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.service.MemberServiceV4;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 기동 직후 몰려드는 이체의 지연시간 - 워밍업 적용 전/후
+ * 스레드마다 처음 STARTUP 건(기동 직후)과 그 이후(정상 상태)의 p99 를 비교
+ *
+ * JIT/클래스 로딩 상태가 섞이지 않도록 매 회차를 새 JVM(Probe)에서 실행한다
+ * ./gradlew benchmark --tests "*WarmUpBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class WarmUpBenchmarkTest {
+
+    static final int ROUNDS = 3;
+    static final int THREADS = 10; //HikariCP 기본 maximumPoolSize
+    static final int TRANSFERS_PER_THREAD = 50;
+    static final int STARTUP = 5;
+    static final int SYNTHETIC_READS = 100;
+
+    @Test
+    void coldVsWarm() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            log.info(probe("cold"));
+            log.info(probe("warm"));
+        }
+    }
+
+    private String probe(String mode) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Probe.class.getName(), mode)
+                .redirectErrorStream(true)
+                .start();
+
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("[" + mode + "]")) {
+                    result = line;
+                }
+            }
+        }
+        assertThat(process.waitFor()).isZero();
+        assertThat(result).isNotNull();
+        return result;
+    }
+
+    static class Probe {
+
+        public static void main(String[] args) throws Exception {
+            String mode = args[0];
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(URL);
+            dataSource.setUsername(USERNAME);
+            dataSource.setPassword(PASSWORD);
+            MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+            try {
+                List<Member> members = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    repository.delete(from(i));
+                    repository.delete(to(i));
+                    members.add(new Member(from(i), 1_000_000));
+                    members.add(new Member(to(i), 1_000_000));
+                }
+                repository.saveAll(members);
+                //위 준비 작업이 연 커넥션을 버리고 빈 풀에서 시작
+                dataSource.getHikariPoolMXBean().softEvictConnections();
+
+                long warmUpMillis = 0;
+                if (mode.equals("warm")) {
+                    long start = System.nanoTime();
+                    new ConnectionPoolWarmUp(dataSource, 0, SYNTHETIC_READS).run();
+                    warmUpMillis = (System.nanoTime() - start) / 1_000_000;
+                }
+                System.out.println(burst(mode, dataSource) + ", warm-up=" + warmUpMillis + "ms");
+            } finally {
+                for (int i = 0; i < THREADS; i++) {
+                    repository.delete(from(i));
+                    repository.delete(to(i));
+                }
+                dataSource.close();
+            }
+        }
+
+        private static String burst(String mode, HikariDataSource dataSource) throws Exception {
+            MemberServiceV4 service = new MemberServiceV4(new MemberRepositoryV5(dataSource), new DataSourceTransactionManager(dataSource));
+            long[][] latencies = new long[THREADS][TRANSFERS_PER_THREAD];
+
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    int thread = t;
+                    futures.add(executor.submit(() -> {
+                        ready.countDown();
+                        ready.await();
+                        for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                            long begin = System.nanoTime();
+                            service.accountTransferPessimistic(from(thread), to(thread), 1);
+                            latencies[thread][i] = System.nanoTime() - begin;
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            long[] startup = Arrays.stream(latencies).flatMapToLong(l -> Arrays.stream(l, 0, STARTUP)).sorted().toArray();
+            long[] steady = Arrays.stream(latencies).flatMapToLong(l -> Arrays.stream(l, STARTUP, l.length)).sorted().toArray();
+            return "[" + mode + "] startup p99=" + p99(startup) / 1000 + "us, max=" + startup[startup.length - 1] / 1000
+                    + "us, steady p99=" + p99(steady) / 1000 + "us";
+        }
+
+        private static long p99(long[] sorted) {
+            return sorted[(int) (sorted.length * 0.99)];
+        }
+    }
+
+    private static String from(int thread) {
+        return String.format("wu%02da", thread);
+    }
+
+    private static String to(int thread) {
+        return String.format("wu%02db", thread);
+    }
+}
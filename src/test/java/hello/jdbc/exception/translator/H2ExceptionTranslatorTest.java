@@ -0,0 +1,108 @@
+package hello.jdbc.exception.translator;
+
+import hello.jdbc.repository.ex.H2ExceptionTranslator;
+import hello.jdbc.repository.ex.MyDbException;
+import hello.jdbc.repository.ex.MyDuplicateKeyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+
+import javax.sql.DataSource;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.Statement;
+import java.util.List;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class H2ExceptionTranslatorTest {
+
+    DataSource dataSource;
+    SQLErrorCodeSQLExceptionTranslator springTranslator;
+
+    @BeforeEach
+    void init() {
+        dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        springTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+        new JdbcTemplate(dataSource).update("insert into member(member_id, money) values('trDup', 0)");
+    }
+
+    @AfterEach
+    void after() {
+        new JdbcTemplate(dataSource).update("delete from member where member_id = 'trDup'");
+    }
+
+    @Test
+    void sameAsSpringForH2Errors() {
+        List<String> sqls = List.of(
+                "insert into member(member_id, money) values('trDup', 0)", //23505 중복 키
+                "select bad grammar",                                      //42122 컬럼 없음
+                "select * from no_such_table",                             //42104 테이블 없음
+                "insert into member(member_id, money) values('trNull', null)", //23502 null 불가
+                "insert into member(member_id, money) values('tooLongMemberId', 0)", //22001 길이 초과
+                "select 1 / 0"                                             //22012 0 으로 나누기
+        );
+        for (String sql : sqls) {
+            SQLException e = execute(sql);
+            assertSameTranslation(sql, e);
+        }
+    }
+
+    @Test
+    void sameAsSpringForSyntheticErrors() {
+        assertSameTranslation("lock", new SQLException("lock timeout", "HYT00", 50200));
+        assertSameTranslation("deadlock", new SQLTransactionRollbackException("deadlock", "40001", 40001));
+        assertSameTranslation("unknown", new SQLException("unknown", "08001", 12345));
+        assertSameTranslation("no code", new SQLException("no code"));
+
+        BatchUpdateException batch = new BatchUpdateException("batch", new int[0]);
+        batch.setNextException(new SQLException("duplicate", "23505", 23505));
+        assertSameTranslation("batch", batch);
+        assertThat(H2ExceptionTranslator.INSTANCE.translate("batch", null, batch)).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void toMyException() {
+        SQLException duplicate = execute("insert into member(member_id, money) values('trDup', 0)");
+        SQLException badGrammar = execute("select bad grammar");
+
+        assertThat(H2ExceptionTranslator.INSTANCE.toMyException(duplicate)).isInstanceOf(MyDuplicateKeyException.class);
+        assertThat(H2ExceptionTranslator.INSTANCE.toMyException(badGrammar))
+                .isExactlyInstanceOf(MyDbException.class)
+                .hasCause(badGrammar);
+        //코드표에 없는 코드라도 SQLState 가 23505 면 중복 키
+        assertThat(H2ExceptionTranslator.INSTANCE.toMyException(new SQLException("duplicate", "23505", 0)))
+                .isInstanceOf(MyDuplicateKeyException.class);
+    }
+
+    private void assertSameTranslation(String task, SQLException e) {
+        DataAccessException expected = springTranslator.translate(task, "sql", e);
+        DataAccessException actual = H2ExceptionTranslator.INSTANCE.translate(task, "sql", e);
+        //분류할 수 없으면 둘 다 null (JdbcTemplate 이 UncategorizedSQLException 으로 감싼다)
+        if (expected == null) {
+            assertThat(actual).isNull();
+            return;
+        }
+        assertThat(actual).as("errorCode=%d, sqlState=%s", e.getErrorCode(), e.getSQLState())
+                .isExactlyInstanceOf(expected.getClass())
+                .hasMessage(expected.getMessage());
+        assertThat(actual.getCause()).isSameAs(expected.getCause());
+    }
+
+    private SQLException execute(String sql) {
+        try (Connection con = dataSource.getConnection(); Statement stmt = con.createStatement()) {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            return e;
+        }
+        throw new AssertionError("예외가 발생하지 않음 sql=" + sql);
+    }
+}
@@ -0,0 +1,39 @@
+package hello.jdbc.exception.translator;
+
+import hello.jdbc.repository.ex.MyDbException;
+import hello.jdbc.repository.ex.MyDuplicateKeyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StacklessExceptionTest {
+
+    @AfterEach
+    void after() {
+        MyDbException.setStackless(false);
+    }
+
+    @Test
+    void stackTraceByDefault() {
+        assertThat(new MyDuplicateKeyException(new SQLException("duplicate")).getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    void stackless() {
+        MyDbException.setStackless(true);
+        SQLException cause = new SQLException("duplicate", "23505", 23505);
+
+        MyDuplicateKeyException e = new MyDuplicateKeyException(cause);
+
+        assertThat(e.getStackTrace()).isEmpty();
+        //원인의 스택 트레이스와 메시지는 남는다
+        assertThat(e).hasCause(cause).hasMessageContaining("duplicate");
+        assertThat(e.getCause().getStackTrace()).isNotEmpty();
+        //스택 트레이스를 쓸 수 없는 예외는 setStackTrace 도 무시된다
+        e.setStackTrace(new StackTraceElement[]{new StackTraceElement("a", "b", "c", 1)});
+        assertThat(e.getStackTrace()).isEmpty();
+    }
+}
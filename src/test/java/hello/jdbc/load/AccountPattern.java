@@ -0,0 +1,65 @@
+package hello.jdbc.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 이체할 (from, to) 계좌 선택 방식
+ * - UNIFORM   : 모든 계좌가 같은 확률
+ * - ZIPFIAN   : k 번째 계좌가 1/k^skew 에 비례 (소수의 인기 계좌에 몰림)
+ * - SYMMETRIC : 계좌 0, 1 두 개만 A->B, B->A 를 무작위로 (교착상태 유발)
+ */
+public enum AccountPattern {
+    UNIFORM,
+    ZIPFIAN,
+    SYMMETRIC;
+
+    public Picker picker(int accounts, double skew) {
+        if (accounts < 2) {
+            throw new IllegalArgumentException("accounts must be at least 2 accounts=" + accounts);
+        }
+        switch (this) {
+            case UNIFORM:
+                return random -> random.nextInt(accounts);
+            case ZIPFIAN:
+                double[] cdf = zipfCdf(accounts, skew);
+                return random -> {
+                    int index = Arrays.binarySearch(cdf, random.nextDouble());
+                    return Math.min(index >= 0 ? index : -index - 1, accounts - 1);
+                };
+            case SYMMETRIC:
+                return random -> random.nextInt(2);
+            default:
+                throw new IllegalStateException("unknown pattern=" + this);
+        }
+    }
+
+    private static double[] zipfCdf(int accounts, double skew) {
+        double[] cdf = new double[accounts];
+        double sum = 0;
+        for (int k = 1; k <= accounts; k++) {
+            sum += 1.0 / Math.pow(k, skew);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < accounts; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    public interface Picker {
+        int next(ThreadLocalRandom random);
+
+        /**
+         * from 과 다른 계좌
+         */
+        default int[] nextPair(ThreadLocalRandom random) {
+            int from = next(random);
+            int to = next(random);
+            while (to == from) {
+                to = next(random);
+            }
+            return new int[]{from, to};
+        }
+    }
+}
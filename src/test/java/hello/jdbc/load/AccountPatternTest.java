@@ -0,0 +1,50 @@
+package hello.jdbc.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountPatternTest {
+
+    static final int SAMPLES = 100_000;
+
+    @Test
+    void zipfianIsSkewedTowardsFirstAccounts() {
+        AccountPattern.Picker picker = AccountPattern.ZIPFIAN.picker(100, 0.99);
+        int[] counts = count(picker, 100);
+
+        //skew 0.99, 100 개 계좌면 첫 계좌가 약 19%
+        assertThat(counts[0]).isBetween(SAMPLES * 15 / 100, SAMPLES * 23 / 100);
+        assertThat(counts[0]).isGreaterThan(counts[1]).isGreaterThan(counts[99] * 50);
+    }
+
+    @Test
+    void uniform() {
+        int[] counts = count(AccountPattern.UNIFORM.picker(10, 0), 10);
+        for (int count : counts) {
+            assertThat(count).isBetween(SAMPLES / 10 * 9 / 10, SAMPLES / 10 * 11 / 10);
+        }
+    }
+
+    @Test
+    void symmetricUsesTwoAccountsBothWays() {
+        AccountPattern.Picker picker = AccountPattern.SYMMETRIC.picker(100, 0);
+        int forward = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            int[] pair = picker.nextPair(ThreadLocalRandom.current());
+            assertThat(pair[0] + pair[1]).isEqualTo(1);
+            forward += pair[0] == 0 ? 1 : 0;
+        }
+        assertThat(forward).isBetween(SAMPLES * 45 / 100, SAMPLES * 55 / 100);
+    }
+
+    private int[] count(AccountPattern.Picker picker, int accounts) {
+        int[] counts = new int[accounts];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[picker.next(ThreadLocalRandom.current())]++;
+        }
+        return counts;
+    }
+}
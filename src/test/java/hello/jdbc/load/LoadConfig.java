@@ -0,0 +1,59 @@
+package hello.jdbc.load;
+
+import java.time.Duration;
+
+/**
+ * 부하 설정 - 시스템 프로퍼티 load.* 로 지정 (./gradlew loadTest -Pload.threads=32 ...)
+ *
+ * load.service   V1, V2, V3_1, V3_2, V3_3, V4, V4_delta, V4_batch, V4_optimistic, V4_pessimistic
+ * load.pattern   uniform, zipfian, symmetric
+ * load.mode      closed (threads 개가 쉬지 않고), open (초당 rate 건 고정, 응답을 기다리지 않고 발사)
+ * load.threads / load.rate / load.accounts / load.skew / load.warmup / load.duration (초)
+ */
+public class LoadConfig {
+
+    public enum Mode {
+        /**
+         * 스레드마다 이전 이체가 끝나면 다음 이체
+         */
+        CLOSED,
+        /**
+         * 예정 시각마다 이체를 시작, 지연시간은 예정 시각부터 잰다 (coordinated omission 방지)
+         */
+        OPEN
+    }
+
+    String service = "V4_pessimistic";
+    AccountPattern pattern = AccountPattern.UNIFORM;
+    Mode mode = Mode.CLOSED;
+    int threads = 16;
+    int rate = 1000;
+    int accounts = 100;
+    double skew = 0.99;
+    Duration warmup = Duration.ofSeconds(2);
+    Duration duration = Duration.ofSeconds(10);
+    int initialMoney = 1_000_000;
+
+    public static LoadConfig fromSystemProperties() {
+        LoadConfig config = new LoadConfig();
+        config.service = System.getProperty("load.service", config.service);
+        config.pattern = AccountPattern.valueOf(System.getProperty("load.pattern", config.pattern.name()).toUpperCase());
+        config.mode = Mode.valueOf(System.getProperty("load.mode", config.mode.name()).toUpperCase());
+        config.threads = Integer.getInteger("load.threads", config.threads);
+        config.rate = Integer.getInteger("load.rate", config.rate);
+        config.accounts = Integer.getInteger("load.accounts", config.accounts);
+        config.skew = Double.parseDouble(System.getProperty("load.skew", String.valueOf(config.skew)));
+        config.warmup = Duration.ofSeconds(Long.getLong("load.warmup", config.warmup.getSeconds()));
+        config.duration = Duration.ofSeconds(Long.getLong("load.duration", config.duration.getSeconds()));
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        return "service=" + service + ", pattern=" + pattern + ", mode=" + mode + ", threads=" + threads
+                + (mode == Mode.OPEN ? ", rate=" + rate + "/s" : "")
+                + ", accounts=" + (pattern == AccountPattern.SYMMETRIC ? 2 : accounts)
+                + (pattern == AccountPattern.ZIPFIAN ? ", skew=" + skew : "")
+                + ", warmup=" + warmup.getSeconds() + "s, duration=" + duration.getSeconds() + "s";
+    }
+}
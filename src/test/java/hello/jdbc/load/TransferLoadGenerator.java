@@ -0,0 +1,184 @@
+package hello.jdbc.load;
+
+import hello.jdbc.connection.LatencyHistogram;
+import hello.jdbc.support.MemberServices.Transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 동시 이체 부하 생성 - MemberServices.transfer 로 조립한 Transfer 를 넘겨서 사용
+ * 실패한 이체는 예외 클래스별로 세고 계속 진행한다
+ */
+public class TransferLoadGenerator {
+
+    private final LoadConfig config;
+    private final Transfer transfer;
+    private final AccountPattern.Picker picker;
+
+    public TransferLoadGenerator(LoadConfig config, Transfer transfer) {
+        this.config = config;
+        this.transfer = transfer;
+        this.picker = config.pattern.picker(config.accounts, config.skew);
+    }
+
+    public static String accountId(int index) {
+        return "ld" + index;
+    }
+
+    /**
+     * warmup 동안 돌린 결과는 버리고 duration 동안의 결과를 돌려준다
+     */
+    public LoadResult run() throws Exception {
+        if (!config.warmup.isZero()) {
+            run(config.warmup.toNanos());
+        }
+        return run(config.duration.toNanos());
+    }
+
+    private LoadResult run(long durationNanos) throws Exception {
+        LoadResult result = new LoadResult(config);
+        if (config.mode == LoadConfig.Mode.CLOSED) {
+            closedLoop(durationNanos, result);
+        } else {
+            openLoop(durationNanos, result);
+        }
+        return result;
+    }
+
+    private void closedLoop(long durationNanos, LoadResult result) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads);
+        CountDownLatch ready = new CountDownLatch(config.threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < config.threads; t++) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    long deadline = System.nanoTime() + durationNanos;
+                    long start;
+                    while ((start = System.nanoTime()) < deadline) {
+                        execute(start, result);
+                    }
+                    return null;
+                }));
+            }
+            ready.await();
+            long start = System.nanoTime();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            result.elapsedNanos = System.nanoTime() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 발사 스레드가 예정 시각(start + i / rate)마다 작업을 넣고 threads 개가 처리
+     * 처리가 밀리면 큐에서 기다린 시간도 지연시간에 포함된다
+     */
+    private void openLoop(long durationNanos, LoadResult result) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate;
+        long start = System.nanoTime();
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended - start >= durationNanos) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                executor.execute(() -> execute(intended, result));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("open-loop 작업이 1분 안에 끝나지 않았습니다");
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+    }
+
+    private void execute(long intendedStart, LoadResult result) {
+        int[] pair = picker.nextPair(ThreadLocalRandom.current());
+        try {
+            transfer.run(accountId(pair[0]), accountId(pair[1]), 1);
+            result.latency.record(System.nanoTime() - intendedStart);
+            result.completed.increment();
+        } catch (Exception e) {
+            result.failures.computeIfAbsent(e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+        }
+    }
+
+    public static class LoadResult {
+
+        private final LoadConfig config;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder completed = new LongAdder();
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        private long elapsedNanos;
+        private long moneyBefore;
+        private long moneyAfter;
+
+        LoadResult(LoadConfig config) {
+            this.config = config;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getCompleted() {
+            return completed.sum();
+        }
+
+        public long getFailed() {
+            return failures.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : getCompleted() * 1e9 / elapsedNanos;
+        }
+
+        public void setMoney(long before, long after) {
+            this.moneyBefore = before;
+            this.moneyAfter = after;
+        }
+
+        public boolean isConserved() {
+            return moneyBefore == moneyAfter;
+        }
+
+        @Override
+        public String toString() {
+            return config
+                    + "\n  completed=" + getCompleted() + ", failed=" + getFailed() + " " + failures
+                    + "\n  throughput=" + String.format("%.1f", getThroughput()) + " tx/s"
+                    + "\n  latency p50=" + micros(latency.getPercentileNanos(50))
+                    + "us, p99=" + micros(latency.getPercentileNanos(99))
+                    + "us, p999=" + micros(latency.getPercentileNanos(99.9))
+                    + "us, max=" + micros(latency.getMaxNanos()) + "us"
+                    + "\n  money before=" + moneyBefore + ", after=" + moneyAfter
+                    + (isConserved() ? " (conserved)" : " (NOT conserved, diff=" + (moneyAfter - moneyBefore) + ")");
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package hello.jdbc.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.support.EmbeddedH2;
+import hello.jdbc.support.MemberServices;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 동시 이체 부하 테스트 - 메모리 H2(EmbeddedH2), 서비스 조립은 MemberServices, 설정은 LoadConfig 참고
+ * ./gradlew loadTest -Pload.service=V3_3 -Pload.pattern=zipfian -Pload.mode=open -Pload.rate=2000
+ *
+ * 끝난 뒤 전체 잔액 합이 처음과 같은지 검사한다
+ * 잔액을 읽고 나서 쓰는 서비스(V1 ~ V4 accountTransfer)는 동시 이체에서 갱신 손실이 생기므로 실패하는 것이 정상
+ */
+@Slf4j
+@Tag("load")
+class TransferLoadTest {
+
+    LoadConfig config = LoadConfig.fromSystemProperties();
+    HikariDataSource dataSource;
+
+    @BeforeEach
+    void before() {
+        dataSource = EmbeddedH2.start("load", Math.max(config.threads, 10));
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < config.accounts; i++) {
+            members.add(new Member(TransferLoadGenerator.accountId(i), config.initialMoney));
+        }
+        new MemberRepositoryV5(dataSource).saveAll(members);
+    }
+
+    @AfterEach
+    void after() {
+        EmbeddedH2.stop(dataSource);
+    }
+
+    @Test
+    void transferLoad() throws Exception {
+        long before = totalMoney();
+        TransferLoadGenerator.LoadResult result = new TransferLoadGenerator(config, MemberServices.transfer(config.service, dataSource)).run();
+        result.setMoney(before, totalMoney());
+
+        log.info("load test result\n{}", result);
+        assertThat(result.getCompleted()).isPositive();
+        assertThat(result.isConserved()).as("money conserved").isTrue();
+    }
+
+    private long totalMoney() {
+        return new JdbcTemplate(dataSource).queryForObject("select sum(money) from member", Long.class);
+    }
+}
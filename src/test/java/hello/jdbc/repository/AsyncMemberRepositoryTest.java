@@ -0,0 +1,98 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncMemberRepositoryTest {
+
+    static final String MEMBER_A = "asyncA";
+
+    final MemberRepositoryV5 target = new MemberRepositoryV5(new DriverManagerDataSource(URL, USERNAME, PASSWORD));
+
+    @AfterEach
+    void after() {
+        target.delete(MEMBER_A);
+    }
+
+    @Test
+    void crud() throws Exception {
+        try (AsyncMemberRepository repository = AsyncMemberRepository.create(target, 2, 10)) {
+            Member found = repository.save(new Member(MEMBER_A, 10000))
+                    .thenCompose(saved -> repository.update(MEMBER_A, 20000))
+                    .thenCompose(updated -> repository.findById(MEMBER_A))
+                    .get(5, TimeUnit.SECONDS);
+            assertThat(found.getMoney()).isEqualTo(20000);
+
+            repository.delete(MEMBER_A).get(5, TimeUnit.SECONDS);
+            assertThatThrownBy(() -> repository.findById(MEMBER_A).get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class);
+        }
+    }
+
+    @Test
+    void rejectsWhenRunningAndQueueAreFull() throws Exception {
+        target.save(new Member(MEMBER_A, 10000));
+        CountDownLatch release = new CountDownLatch(1);
+        MemberRepositoryV5 blocking = new MemberRepositoryV5(new DriverManagerDataSource(URL, USERNAME, PASSWORD)) {
+            @Override
+            public Member findById(String memberId) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findById(memberId);
+            }
+        };
+
+        try (AsyncMemberRepository repository = AsyncMemberRepository.create(blocking, 2, 3)) {
+            List<CompletableFuture<Member>> accepted = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                accepted.add(repository.findById(MEMBER_A));
+            }
+            CompletableFuture<Member> overloaded = repository.findById(MEMBER_A);
+
+            assertThat(overloaded).isCompletedExceptionally();
+            assertThatThrownBy(overloaded::join).hasCauseInstanceOf(RejectedExecutionException.class);
+            assertThat(repository.getRejectedCount()).isEqualTo(1);
+            assertThat(repository.getPending()).isEqualTo(5);
+
+            release.countDown();
+            for (CompletableFuture<Member> future : accepted) {
+                assertThat(future.get(5, TimeUnit.SECONDS).getMoney()).isEqualTo(10000);
+            }
+            assertThat(repository.getPending()).isZero();
+        }
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        Assumptions.assumeTrue(AsyncMemberRepository.isVirtualThreadSupported(), "JDK 21 이상");
+        try (AsyncMemberRepository repository = AsyncMemberRepository.virtualThreads(target, 2, 10)) {
+            repository.save(new Member(MEMBER_A, 10000)).get(5, TimeUnit.SECONDS);
+            assertThat(repository.findById(MEMBER_A).get(5, TimeUnit.SECONDS).getMoney()).isEqualTo(10000);
+        }
+    }
+
+    @Test
+    void virtualThreadsUnsupported() {
+        Assumptions.assumeFalse(AsyncMemberRepository.isVirtualThreadSupported());
+        assertThatThrownBy(() -> AsyncMemberRepository.virtualThreads(target, 2, 10))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
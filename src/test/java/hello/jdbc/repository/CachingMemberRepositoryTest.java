@@ -0,0 +1,117 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import hello.jdbc.service.MemberServiceV4;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CachingMemberRepositoryTest {
+
+    static final String MEMBER_A = "memberA";
+    static final String MEMBER_B = "memberB";
+    static final String MEMBER_EX = "ex";
+
+    @Autowired
+    private CachingMemberRepository memberRepository;
+    @Autowired
+    private MemberServiceV4 memberService;
+
+    @TestConfiguration
+    static class TestConfig {
+
+        private final DataSource dataSource;
+        private final PlatformTransactionManager transactionManager;
+
+        public TestConfig(DataSource dataSource, PlatformTransactionManager transactionManager) {
+            this.dataSource = dataSource;
+            this.transactionManager = transactionManager;
+        }
+
+        @Bean
+        CachingMemberRepository memberRepository() {
+            return new CachingMemberRepository(new MemberRepositoryV5(dataSource), 100, Duration.ofMinutes(1));
+        }
+
+        @Bean
+        MemberServiceV4 memberServiceV4() {
+            return new MemberServiceV4(memberRepository(), transactionManager);
+        }
+    }
+
+    @AfterEach
+    void after() {
+        memberRepository.delete(MEMBER_A);
+        memberRepository.delete(MEMBER_B);
+        memberRepository.delete(MEMBER_EX);
+    }
+
+    @Test
+    @DisplayName("두 번째 조회부터 캐시 적중")
+    void hit() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        long hitsBefore = memberRepository.getHitCount();
+
+        memberRepository.findById(MEMBER_A);
+        Member cached = memberRepository.findById(MEMBER_A);
+
+        assertThat(cached.getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.getHitCount() - hitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("커밋된 이체는 캐시에 새 잔액이 보인다")
+    void accountTransfer() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+        memberRepository.findById(MEMBER_A);
+        memberRepository.findById(MEMBER_B);
+
+        memberService.accountTransfer(MEMBER_A, MEMBER_B, 2000);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(12000);
+    }
+
+    @Test
+    @DisplayName("롤백된 이체는 캐시에 흔적을 남기지 않는다")
+    void accountTransferEx() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+        memberRepository.findById(MEMBER_A);
+        memberRepository.findById(MEMBER_EX);
+
+        assertThatThrownBy(() -> memberService.accountTransfer(MEMBER_A, MEMBER_EX, 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("maximumSize 를 넘으면 LRU 로 밀어내고, 반환한 Member 를 고쳐도 캐시는 그대로")
+    void evictionAndCopy() {
+        CachingMemberRepository small = new CachingMemberRepository(memberRepository, 1, Duration.ofMinutes(1));
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        small.findById(MEMBER_A).setMoney(0);
+        assertThat(small.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+
+        small.findById(MEMBER_B);
+        assertThat(small.getEvictionCount()).isEqualTo(1);
+        assertThat(small.size()).isEqualTo(1);
+    }
+}
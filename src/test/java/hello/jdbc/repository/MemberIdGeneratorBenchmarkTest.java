@@ -0,0 +1,100 @@
+package hello.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.ex.MyDuplicateKeyException;
+import hello.jdbc.support.EmbeddedH2;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 회원 생성 비용
+ * - retry     : ExTranslatorV1Test 의 Service.create - 요청한 memberId 로 INSERT, 중복이면 memberId + 난수(10000) 로 한 번 더
+ *               (요청 memberId 는 이미 있는 "dup", 두 번째도 중복이면 생성 실패)
+ * - generator : MemberIdGenerator.nextId() 로 INSERT 한 번
+ * 회원 수가 늘수록 retry 는 난수 충돌이 잦아진다
+ * ./gradlew benchmark --tests "*MemberIdGeneratorBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class MemberIdGeneratorBenchmarkTest {
+
+    static final int THREADS = 8;
+    static final int CREATES = 8_000;
+
+    HikariDataSource dataSource;
+    MemberRepositoryV4_1 repository;
+
+    @BeforeEach
+    void before() {
+        dataSource = EmbeddedH2.start("idgenBench", THREADS);
+        repository = new MemberRepositoryV4_1(dataSource);
+        repository.save(new Member("dup", 0));
+    }
+
+    @AfterEach
+    void after() {
+        EmbeddedH2.stop(dataSource);
+    }
+
+    @Test
+    void create() throws Exception {
+        LongAdder inserts = new LongAdder();
+        LongAdder failures = new LongAdder();
+        run("retry", inserts, failures, () -> {
+            inserts.increment();
+            try {
+                repository.save(new Member("dup", 0));
+            } catch (MyDuplicateKeyException e) {
+                inserts.increment();
+                try {
+                    repository.save(new Member("dup" + ThreadLocalRandom.current().nextInt(10000), 0));
+                } catch (MyDuplicateKeyException retryFailed) {
+                    failures.increment();
+                }
+            }
+        });
+
+        MemberIdGenerator generator = new MemberIdGenerator(dataSource);
+        LongAdder generatorInserts = new LongAdder();
+        run("generator", generatorInserts, new LongAdder(), () -> {
+            generatorInserts.increment();
+            repository.save(new Member(generator.nextId(), 0));
+        });
+        log.info("[generator] sequence calls={}", generator.getBlockCount());
+    }
+
+    private void run(String name, LongAdder inserts, LongAdder failures, Runnable create) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < CREATES / THREADS; i++) {
+                        create.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+        log.info("[{}] creates={}, throughput={}/s, inserts per create={}, failed creates={}", name, CREATES,
+                CREATES * 1_000_000_000L / elapsed, String.format("%.2f", (double) inserts.sum() / CREATES), failures.sum());
+    }
+}
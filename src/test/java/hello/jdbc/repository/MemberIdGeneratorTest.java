@@ -0,0 +1,117 @@
+package hello.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.support.EmbeddedH2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 메모리 H2 + main 의 schema.sql (member_id_seq)
+ */
+class MemberIdGeneratorTest {
+
+    HikariDataSource dataSource;
+    JdbcTemplate template;
+
+    @BeforeEach
+    void before() {
+        dataSource = EmbeddedH2.start("idgen");
+        template = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void after() {
+        EmbeddedH2.stop(dataSource);
+    }
+
+    @Test
+    @DisplayName("블록 하나는 시퀀스 조회 한 번")
+    void block() {
+        MemberIdGenerator generator = new MemberIdGenerator(dataSource);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < MemberIdGenerator.DEFAULT_BLOCK_SIZE + 1; i++) {
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).doesNotHaveDuplicates().allMatch(id -> id.startsWith(MemberIdGenerator.PREFIX));
+        assertThat(ids.get(0)).isEqualTo("g-1");
+        assertThat(generator.getBlockCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("같은 시퀀스를 쓰는 인스턴스끼리도, 여러 스레드에서도 겹치지 않는다")
+    void concurrent() throws Exception {
+        MemberIdGenerator first = new MemberIdGenerator(dataSource);
+        MemberIdGenerator second = new MemberIdGenerator(dataSource);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 5_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                MemberIdGenerator generator = t % 2 == 0 ? first : second;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(ids).hasSize(threads * perThread);
+        assertThat(first.getBlockCount() + second.getBlockCount()).isEqualTo(threads * perThread / MemberIdGenerator.DEFAULT_BLOCK_SIZE);
+    }
+
+    @Test
+    @DisplayName("생성한 memberId 로 저장하면 INSERT 한 번에 성공")
+    void save() {
+        MemberIdGenerator generator = new MemberIdGenerator(dataSource);
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+
+        for (int i = 0; i < 250; i++) {
+            repository.save(new Member(generator.nextId(), 0));
+        }
+
+        assertThat(template.queryForObject("select count(*) from member", Integer.class)).isEqualTo(250);
+    }
+
+    @Test
+    @DisplayName("blockSize 가 시퀀스 increment 와 다르면 블록이 겹칠 수 있으므로 실패")
+    void incrementMismatch() {
+        MemberIdGenerator generator = new MemberIdGenerator(dataSource, MemberIdGenerator.DEFAULT_SEQUENCE, 1000);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("member_id(varchar(10)) 를 넘으면 실패")
+    void tooLong() {
+        template.execute("create sequence big_seq start with " + Long.MAX_VALUE / 2 + " increment by 10");
+        MemberIdGenerator generator = new MemberIdGenerator(dataSource, "big_seq", 10);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,50 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberRepositoryAddMoneyTest {
+
+    static final String MEMBER_A = "memberA";
+
+    DataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+
+    @AfterEach
+    void after() {
+        new MemberRepositoryV5(dataSource).delete(MEMBER_A);
+    }
+
+    @Test
+    void addMoneyV4_1() {
+        addMoney(new MemberRepositoryV4_1(dataSource));
+    }
+
+    @Test
+    void addMoneyV4_2() {
+        addMoney(new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    void addMoneyV5() {
+        addMoney(new MemberRepositoryV5(dataSource));
+    }
+
+    private void addMoney(MemberRepository repository) {
+        repository.save(new Member(MEMBER_A, 1000));
+
+        assertThat(repository.addMoney(MEMBER_A, 500)).isTrue();
+        assertThat(repository.addMoney(MEMBER_A, -1500, true)).isTrue();
+        assertThat(repository.addMoney(MEMBER_A, -1, true)).isFalse();
+        assertThat(repository.addMoney(MEMBER_A, -1)).isTrue();
+        assertThat(repository.addMoney("none", 100)).isFalse();
+
+        assertThat(repository.findById(MEMBER_A).getMoney()).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,118 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberRepositoryFindAllByIdsTest {
+
+    DataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+
+    @AfterEach
+    void after() {
+        new JdbcTemplate(dataSource).update("delete from Member where member_id like 'inId%'");
+    }
+
+    @Test
+    @DisplayName("V4_1 - MAX_IN_SIZE 를 넘는 키는 나눠서 조회")
+    void findAllByIdsV4_1() {
+        findAllByIds(new MemberRepositoryV4_1(dataSource));
+    }
+
+    @Test
+    @DisplayName("V4_2 - MAX_IN_SIZE 를 넘는 키는 나눠서 조회")
+    void findAllByIdsV4_2() {
+        findAllByIds(new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    @DisplayName("V5 - MAX_IN_SIZE 를 넘는 키는 나눠서 조회")
+    void findAllByIdsV5() {
+        findAllByIds(new MemberRepositoryV5(dataSource));
+    }
+
+    @Test
+    @DisplayName("V4_1 - 잠금 조회도 나눠서 조회")
+    void findAllByIdsForUpdateV4_1() {
+        findAllByIdsForUpdate(new MemberRepositoryV4_1(dataSource));
+    }
+
+    @Test
+    @DisplayName("V4_2 - 잠금 조회도 나눠서 조회")
+    void findAllByIdsForUpdateV4_2() {
+        findAllByIdsForUpdate(new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    @DisplayName("V5 - 잠금 조회도 나눠서 조회")
+    void findAllByIdsForUpdateV5() {
+        findAllByIdsForUpdate(new MemberRepositoryV5(dataSource));
+    }
+
+    @Test
+    @DisplayName("null 키는 잠금 여부와 상관없이 같은 예외")
+    void nullId() {
+        List<String> memberIds = Arrays.asList("inIdA", null);
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        for (MemberRepository repository : List.of(new MemberRepositoryV4_1(dataSource), new MemberRepositoryV4_2(dataSource), new MemberRepositoryV5(dataSource))) {
+            assertThatThrownBy(() -> repository.findAllByIds(memberIds))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> txTemplate.execute(status -> repository.findAllByIdsForUpdate(memberIds)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private void findAllByIds(MemberRepository repository) {
+        List<String> memberIds = saveMembers(repository);
+
+        Map<String, Member> result = repository.findAllByIds(memberIds);
+
+        assertThat(result).hasSize(1200);
+        assertThat(result.get("inId0999")).isEqualTo(new Member("inId0999", 999));
+        assertThat(result).doesNotContainKey("inIdNone");
+        assertThat(repository.findAllByIds(List.of())).isEmpty();
+    }
+
+    private void findAllByIdsForUpdate(MemberRepository repository) {
+        List<String> memberIds = saveMembers(repository);
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        Map<String, Member> result = txTemplate.execute(status -> repository.findAllByIdsForUpdate(memberIds));
+        Member member = txTemplate.execute(status -> repository.findByIdForUpdate("inId0999"));
+
+        assertThat(result).hasSize(1200);
+        assertThat(result.get("inId0999")).isEqualTo(new Member("inId0999", 999));
+        assertThat(result).doesNotContainKey("inIdNone");
+        assertThat(member).isEqualTo(new Member("inId0999", 999));
+    }
+
+    private List<String> saveMembers(MemberRepository repository) {
+        List<Member> members = new ArrayList<>();
+        List<String> memberIds = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            Member member = new Member(String.format("inId%04d", i), i);
+            members.add(member);
+            memberIds.add(member.getMemberId());
+        }
+        repository.saveAll(members);
+        memberIds.add("inIdNone");
+        memberIds.add("inId0000"); //중복 키
+        return memberIds;
+    }
+}
@@ -0,0 +1,61 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberRepositoryFindOptionalByIdTest {
+
+    DataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+
+    @AfterEach
+    void after() {
+        new JdbcTemplate(dataSource).update("delete from Member where member_id like 'optId%'");
+    }
+
+    @Test
+    @DisplayName("V4_1 - 있으면 값, 없으면 empty")
+    void findOptionalByIdV4_1() {
+        findOptionalById(new MemberRepositoryV4_1(dataSource));
+    }
+
+    @Test
+    @DisplayName("V4_2 - 있으면 값, 없으면 empty")
+    void findOptionalByIdV4_2() {
+        findOptionalById(new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    @DisplayName("V5 - 있으면 값, 없으면 empty")
+    void findOptionalByIdV5() {
+        findOptionalById(new MemberRepositoryV5(dataSource));
+    }
+
+    @Test
+    @DisplayName("캐시 - 없는 회원은 캐시하지 않는다")
+    void findOptionalByIdCaching() {
+        CachingMemberRepository repository = new CachingMemberRepository(new MemberRepositoryV5(dataSource), 10, Duration.ofMinutes(1));
+        findOptionalById(repository);
+
+        repository.save(new Member("optIdB", 300));
+        assertThat(repository.findOptionalById("optIdB")).map(Member::getMoney).contains(300);
+        assertThat(repository.findOptionalById("optIdA")).map(Member::getMoney).contains(100);
+        assertThat(repository.getHitCount()).isPositive();
+    }
+
+    private void findOptionalById(MemberRepository repository) {
+        repository.save(new Member("optIdA", 100));
+
+        assertThat(repository.findOptionalById("optIdA")).map(Member::getMoney).contains(100);
+        assertThat(repository.findOptionalById("optIdB")).isEmpty();
+    }
+}
@@ -0,0 +1,97 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.connection.R2dbcPools;
+import hello.jdbc.domain.Member;
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberRepositoryR2dbcTest {
+
+    ConnectionPool pool;
+    MemberRepositoryR2dbc repository;
+
+    @BeforeEach
+    void before() {
+        //커넥션이 반환되지 않으면 다음 조회가 풀에서 기다리다 시간 초과로 실패하도록 풀 크기 1
+        pool = R2dbcPools.h2(R2DBC_H2_URL, USERNAME, PASSWORD, 1);
+        repository = new MemberRepositoryR2dbc(pool);
+    }
+
+    @AfterEach
+    void after() {
+        Flux.just("r2dbcA", "r2dbcB", "r2dbcC").concatMap(repository::delete).blockLast();
+        pool.dispose();
+    }
+
+    @Test
+    void crud() {
+        Member member = new Member("r2dbcA", 10000);
+        repository.save(member).block();
+
+        Member findMember = repository.findById(member.getMemberId()).block();
+        assertThat(findMember).isEqualTo(member);
+
+        repository.update(member.getMemberId(), 20000).block();
+        Member updatedMember = repository.findById(member.getMemberId()).block();
+        assertThat(updatedMember.getMoney()).isEqualTo(20000);
+        assertThat(updatedMember.getVersion()).isEqualTo(1);
+
+        repository.delete(member.getMemberId()).block();
+        assertThatThrownBy(() -> repository.findById(member.getMemberId()).block())
+                .isInstanceOf(EmptyResultDataAccessException.class);
+    }
+
+    @Test
+    @DisplayName("중복 키는 V5 와 같은 DuplicateKeyException")
+    void duplicateKey() {
+        repository.save(new Member("r2dbcA", 10000)).block();
+
+        assertThatThrownBy(() -> repository.save(new Member("r2dbcA", 20000)).block())
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void findAllByIdsAndAddMoney() {
+        repository.save(new Member("r2dbcA", 100)).block();
+        repository.save(new Member("r2dbcB", 200)).block();
+
+        Map<String, Member> members = repository.findAllByIds(List.of("r2dbcA", "r2dbcB", "r2dbcX")).block();
+        assertThat(members).containsOnlyKeys("r2dbcA", "r2dbcB");
+
+        assertThat(repository.addMoney("r2dbcA", -100, true).block()).isTrue();
+        assertThat(repository.addMoney("r2dbcA", -1, true).block()).isFalse();
+        assertThat(repository.addMoney("r2dbcX", 1, false).block()).isFalse();
+        assertThat(repository.findById("r2dbcA").block().getMoney()).isZero();
+    }
+
+    @Test
+    @DisplayName("스캔 - 일부만 읽고 취소해도 커넥션 반환")
+    void scanAll() {
+        Flux.just(new Member("r2dbcA", 100), new Member("r2dbcB", 200), new Member("r2dbcC", 300))
+                .concatMap(repository::save)
+                .blockLast();
+
+        List<Member> first = repository.scanAll(1).take(1).collectList().block();
+        assertThat(first).hasSize(1);
+
+        List<Member> scanned = repository.scanAll(2)
+                .filter(member -> member.getMemberId().startsWith("r2dbc"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(scanned).extracting(Member::getMoney).containsExactlyInAnyOrder(100, 200, 300);
+    }
+}
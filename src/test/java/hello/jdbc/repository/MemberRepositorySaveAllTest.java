@@ -0,0 +1,85 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.connection.JdbcInstrumentation;
+import hello.jdbc.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberRepositorySaveAllTest {
+
+    static final List<String> MEMBER_IDS = List.of("batchA", "batchB", "batchC", "batchD", "batchE");
+
+    DataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+    MemberRepository cleaner = new MemberRepositoryV5(dataSource);
+
+    @AfterEach
+    void after() {
+        for (String memberId : MEMBER_IDS) {
+            cleaner.delete(memberId);
+        }
+    }
+
+    @Test
+    @DisplayName("V4_2 배치 저장 - batchSize 보다 많은 건수")
+    void saveAllV4_2() {
+        long rowsBefore = JdbcInstrumentation.getRows("saveAll");
+
+        saveAll(new MemberRepositoryV4_2(dataSource, 2));
+
+        //배치 문장 수(3)가 아니라 반영된 행 수
+        assertThat(JdbcInstrumentation.getRows("saveAll") - rowsBefore).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("V5 배치 저장 - batchSize 보다 많은 건수")
+    void saveAllV5() {
+        saveAll(new MemberRepositoryV5(dataSource, 2));
+    }
+
+    @Test
+    @DisplayName("V4_2 배치 중복키 - 실패한 memberId 보고")
+    void saveAllDuplicateKeyV4_2() {
+        MemberRepository repository = new MemberRepositoryV4_2(dataSource, 2);
+        repository.save(new Member("batchB", 0));
+
+        List<Member> members = List.of(new Member("batchA", 100), new Member("batchB", 100), new Member("batchC", 100));
+
+        assertThatThrownBy(() -> repository.saveAll(members))
+                .isInstanceOf(DuplicateKeyException.class)
+                .hasMessageContaining("failedMemberIds=[batchB]");
+    }
+
+    @Test
+    @DisplayName("V5 배치 중복키")
+    void saveAllDuplicateKeyV5() {
+        MemberRepository repository = new MemberRepositoryV5(dataSource, 2);
+        repository.save(new Member("batchB", 0));
+
+        List<Member> members = List.of(new Member("batchA", 100), new Member("batchB", 100), new Member("batchC", 100));
+
+        assertThatThrownBy(() -> repository.saveAll(members))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    private void saveAll(MemberRepository repository) {
+        List<Member> members = List.of(
+                new Member("batchA", 100), new Member("batchB", 200), new Member("batchC", 300),
+                new Member("batchD", 400), new Member("batchE", 500));
+
+        repository.saveAll(members);
+
+        for (Member member : members) {
+            assertThat(repository.findById(member.getMemberId())).isEqualTo(member);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package hello.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberRepositoryScanAllTest {
+
+    HikariDataSource dataSource;
+
+    @BeforeEach
+    void before() {
+        //커넥션이 반환되지 않으면 다음 조회가 connectionTimeout 으로 실패하도록 풀 크기 1
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(URL);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setConnectionTimeout(1000);
+    }
+
+    @AfterEach
+    void after() {
+        new JdbcTemplate(dataSource).update("delete from Member where member_id like 'scan%'");
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("V4_1 스캔 - 스트림을 닫으면 커넥션 반환")
+    void scanAllV4_1() {
+        scanAll(new MemberRepositoryV4_1(dataSource));
+    }
+
+    @Test
+    @DisplayName("V4_2 스캔 - 스트림을 닫으면 커넥션 반환")
+    void scanAllV4_2() {
+        scanAll(new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    @DisplayName("V5 스캔 - 스트림을 닫으면 커넥션 반환")
+    void scanAllV5() {
+        scanAll(new MemberRepositoryV5(dataSource));
+    }
+
+    private void scanAll(MemberRepository repository) {
+        repository.saveAll(List.of(new Member("scanA", 100), new Member("scanB", 200), new Member("scanC", 300)));
+
+        List<Member> scanned;
+        try (Stream<Member> members = repository.scanAll(2)) {
+            scanned = members.filter(member -> member.getMemberId().startsWith("scan"))
+                    .collect(Collectors.toList());
+        }
+
+        assertThat(scanned).containsExactlyInAnyOrder(
+                new Member("scanA", 100), new Member("scanB", 200), new Member("scanC", 300));
+        assertThat(repository.findById("scanA").getMoney()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,99 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.ex.MyDbException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberRepositoryUpsertTest {
+
+    DataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+
+    @AfterEach
+    void after() {
+        new JdbcTemplate(dataSource).update("delete from Member where member_id like 'ups%'");
+    }
+
+    @Test
+    @DisplayName("V4_1 - 없으면 INSERT, 있으면 money 변경 + version 증가")
+    void upsertV4_1() {
+        MemberRepository repository = new MemberRepositoryV4_1(dataSource, 2);
+        upsert(repository);
+
+        assertThatThrownBy(() -> repository.upsert(new Member("upsTooLongId", 0)))
+                .isInstanceOf(MyDbException.class);
+    }
+
+    @Test
+    @DisplayName("V4_2 - 없으면 INSERT, 있으면 money 변경 + version 증가")
+    void upsertV4_2() {
+        MemberRepository repository = new MemberRepositoryV4_2(dataSource, 2);
+        upsert(repository);
+
+        assertThatThrownBy(() -> repository.upsert(new Member("upsTooLongId", 0)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> repository.upsertAll(List.of(new Member("upsE", 0), new Member("upsTooLongId", 0))))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("failedMemberIds=[upsTooLongId]");
+    }
+
+    @Test
+    @DisplayName("V5 - 없으면 INSERT, 있으면 money 변경 + version 증가")
+    void upsertV5() {
+        MemberRepository repository = new MemberRepositoryV5(dataSource, 2);
+        upsert(repository);
+
+        assertThatThrownBy(() -> repository.upsert(new Member("upsTooLongId", 0)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("캐시 - upsert 한 회원은 캐시에서 지운다")
+    void upsertCaching() {
+        CachingMemberRepository repository = new CachingMemberRepository(new MemberRepositoryV5(dataSource), 10, Duration.ofMinutes(1));
+        repository.upsert(new Member("upsA", 100));
+        assertThat(repository.findById("upsA").getMoney()).isEqualTo(100);
+
+        repository.upsert(new Member("upsA", 200));
+        assertThat(repository.findById("upsA").getMoney()).isEqualTo(200);
+
+        repository.upsertAll(List.of(new Member("upsA", 300)));
+        assertThat(repository.findById("upsA").getMoney()).isEqualTo(300);
+    }
+
+    private void upsert(MemberRepository repository) {
+        repository.upsert(new Member("upsA", 100));
+        assertThat(repository.findById("upsA").getMoney()).isEqualTo(100);
+        assertThat(repository.findById("upsA").getVersion()).isEqualTo(0);
+
+        repository.upsert(new Member("upsA", 150));
+        assertThat(repository.findById("upsA").getMoney()).isEqualTo(150);
+        assertThat(repository.findById("upsA").getVersion()).isEqualTo(1);
+
+        //기존 1건 + 신규 2건, 청크(2) 경계를 넘고 같은 배치 안에서 같은 회원을 두 번
+        repository.upsertAll(List.of(new Member("upsA", 200), new Member("upsB", 300), new Member("upsC", 400), new Member("upsB", 500)));
+        assertThat(repository.findAllByIds(List.of("upsA", "upsB", "upsC")))
+                .hasSize(3)
+                .hasEntrySatisfying("upsA", member -> {
+                    assertThat(member.getMoney()).isEqualTo(200);
+                    assertThat(member.getVersion()).isEqualTo(2);
+                })
+                .hasEntrySatisfying("upsB", member -> {
+                    assertThat(member.getMoney()).isEqualTo(500);
+                    assertThat(member.getVersion()).isEqualTo(1);
+                })
+                .hasEntrySatisfying("upsC", member -> assertThat(member.getMoney()).isEqualTo(400));
+    }
+}
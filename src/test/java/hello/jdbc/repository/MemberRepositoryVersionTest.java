@@ -0,0 +1,56 @@
+package hello.jdbc.repository;
+
+import hello.jdbc.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberRepositoryVersionTest {
+
+    static final String MEMBER_A = "memberA";
+
+    DataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+
+    @AfterEach
+    void after() {
+        new MemberRepositoryV5(dataSource).delete(MEMBER_A);
+    }
+
+    @Test
+    void updateIfVersionV4_1() {
+        updateIfVersion(new MemberRepositoryV4_1(dataSource));
+    }
+
+    @Test
+    void updateIfVersionV4_2() {
+        updateIfVersion(new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    void updateIfVersionV5() {
+        updateIfVersion(new MemberRepositoryV5(dataSource));
+    }
+
+    private void updateIfVersion(MemberRepository repository) {
+        repository.save(new Member(MEMBER_A, 1000));
+        Member member = repository.findById(MEMBER_A);
+        assertThat(member.getVersion()).isEqualTo(0);
+
+        assertThat(repository.updateIfVersion(MEMBER_A, 2000, member.getVersion())).isTrue();
+        assertThat(repository.updateIfVersion(MEMBER_A, 3000, member.getVersion())).isFalse();
+        assertThat(repository.updateIfVersion("none", 3000, 0)).isFalse();
+
+        //version 을 비교하지 않는 쓰기도 version 을 올린다
+        repository.update(MEMBER_A, 2500);
+        repository.addMoney(MEMBER_A, 500);
+
+        Member findMember = repository.findById(MEMBER_A);
+        assertThat(findMember.getMoney()).isEqualTo(3000);
+        assertThat(findMember.getVersion()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,77 @@
+package hello.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.support.EmbeddedH2;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 행당 매핑 비용 - 컬럼 이름 조회(기존 memberRowMapper) vs 위치 조회(MemberRowMapper)
+ * 네트워크 비용을 빼기 위해 메모리 H2 에서 측정
+ * ./gradlew benchmark --tests "*MemberRowMapperBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class MemberRowMapperBenchmarkTest {
+
+    static final int ROWS = 200_000;
+    static final int ROUNDS = 20;
+
+    HikariDataSource dataSource;
+    JdbcTemplate template;
+
+    @BeforeEach
+    void before() {
+        dataSource = EmbeddedH2.start("rowmapper");
+        template = new JdbcTemplate(dataSource);
+        List<Member> members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            members.add(new Member(String.format("row%06d", i), i));
+        }
+        new MemberRepositoryV5(dataSource).saveAll(members);
+    }
+
+    @AfterEach
+    void after() {
+        EmbeddedH2.stop(dataSource);
+    }
+
+    @Test
+    void labelVsIndex() {
+        RowMapper<Member> byLabel = (rs, rowNum) -> {
+            Member member = new Member();
+            member.setMemberId(rs.getString("member_id"));
+            member.setMoney(rs.getInt("money"));
+            member.setVersion(rs.getLong("version"));
+            return member;
+        };
+
+        //JIT 순서 영향을 줄이기 위해 번갈아 실행하고 각자 가장 빠른 회차를 비교
+        long bestLabel = Long.MAX_VALUE;
+        long bestIndex = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            bestLabel = Math.min(bestLabel, scan("select * from Member", byLabel));
+            bestIndex = Math.min(bestIndex, scan("select member_id, money, version from Member", MemberRowMapper.INSTANCE));
+        }
+        log.info("[label] rows={}, best={}ms, perRow={}ns", ROWS, bestLabel / 1_000_000, bestLabel / ROWS);
+        log.info("[index] rows={}, best={}ms, perRow={}ns", ROWS, bestIndex / 1_000_000, bestIndex / ROWS);
+    }
+
+    private long scan(String sql, RowMapper<Member> rowMapper) {
+        long start = System.nanoTime();
+        long[] sum = new long[1];
+        template.query(sql, rs -> {
+            sum[0] += rowMapper.mapRow(rs, 0).getMoney();
+        });
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,147 @@
+package hello.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.connection.R2dbcPools;
+import hello.jdbc.domain.Member;
+import io.r2dbc.pool.ConnectionPool;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 동시 요청 수(inFlight)가 커넥션 풀(POOL_SIZE)보다 훨씬 많을 때 findById
+ * - blocking : MemberRepositoryV5 + HikariCP, 요청마다 스레드 하나 (스레드 inFlight 개)
+ * - reactive : MemberRepositoryR2dbc + r2dbc-pool, flatMap(concurrency = inFlight)
+ * - reactive-parallel : reactive 와 같고 각 조회를 Schedulers.parallel() (CPU 코어 수 스레드) 에서 구독
+ * 처리량, 지연시간, 측정 중 최대 스레드 수를 비교
+ *
+ * r2dbc-h2 는 H2 엔진/TCP 클라이언트를 구독한 스레드에서 동기로 호출한다 (H2 에는 논블로킹 프로토콜이 없다)
+ * 그래서 reactive 는 조회가 사실상 한 스레드에서 순서대로 실행되고, 스레드 수를 늘리지 않고 병렬로 돌리려면 parallel 이 필요하다
+ * ./gradlew benchmark --tests "*ReactiveVsBlockingBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class ReactiveVsBlockingBenchmarkTest {
+
+    static final String MEMBER_ID = "reactBm";
+    static final int POOL_SIZE = 10;
+    static final int REQUESTS = 20_000;
+
+    HikariDataSource dataSource;
+    ConnectionPool pool;
+    MemberRepositoryV5 blocking;
+    MemberRepositoryR2dbc reactive;
+
+    @BeforeEach
+    void before() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(URL);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setMaximumPoolSize(POOL_SIZE);
+        blocking = new MemberRepositoryV5(dataSource);
+
+        pool = R2dbcPools.h2(R2DBC_H2_URL, USERNAME, PASSWORD, POOL_SIZE);
+        reactive = new MemberRepositoryR2dbc(pool);
+
+        blocking.delete(MEMBER_ID);
+        blocking.save(new Member(MEMBER_ID, 10000));
+    }
+
+    @AfterEach
+    void after() {
+        blocking.delete(MEMBER_ID);
+        dataSource.close();
+        pool.dispose();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {16, 256, 1024})
+    void findById(int inFlight) throws Exception {
+        //워밍업
+        runBlocking(inFlight, REQUESTS / 10);
+        runReactive(inFlight, REQUESTS / 10, true);
+
+        report("blocking", inFlight, () -> runBlocking(inFlight, REQUESTS));
+        report("reactive", inFlight, () -> runReactive(inFlight, REQUESTS, false));
+        report("reactive-parallel", inFlight, () -> runReactive(inFlight, REQUESTS, true));
+    }
+
+    private long[] runBlocking(int inFlight, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        int perThread = requests / inFlight;
+        ExecutorService executor = Executors.newFixedThreadPool(inFlight);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < inFlight; t++) {
+                int offset = t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        long begin = System.nanoTime();
+                        blocking.findById(MEMBER_ID);
+                        latencies[offset + i] = System.nanoTime() - begin;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            //다음 측정의 peakThreads 에 남은 스레드가 섞이지 않도록 종료까지 기다린다
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        return Arrays.copyOf(latencies, perThread * inFlight);
+    }
+
+    private long[] runReactive(int inFlight, int requests, boolean parallel) {
+        long[] latencies = new long[requests];
+        Long count = Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                    long begin = System.nanoTime();
+                    return reactive.findById(MEMBER_ID)
+                            .doOnNext(member -> latencies[i] = System.nanoTime() - begin);
+                }).subscribeOn(parallel ? Schedulers.parallel() : Schedulers.immediate()), inFlight)
+                .count()
+                .block();
+        assertThat(count).isEqualTo(requests);
+        return latencies;
+    }
+
+    private void report(String name, int inFlight, Run run) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        long[] latencies = run.run();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        log.info("[{}] inFlight={}, requests={}, throughput={}/s, p50={}us, p99={}us, max={}us, peakThreads={}", name, inFlight,
+                latencies.length, latencies.length * 1_000_000_000L / elapsed, latencies[latencies.length / 2] / 1000,
+                latencies[(int) (latencies.length * 0.99)] / 1000, latencies[latencies.length - 1] / 1000,
+                threads.getPeakThreadCount());
+    }
+
+    interface Run {
+        long[] run() throws Exception;
+    }
+}
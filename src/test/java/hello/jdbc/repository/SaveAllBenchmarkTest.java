@@ -0,0 +1,103 @@
+package hello.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+
+/**
+ * save 한 건씩 vs saveAll 배치 - rows/sec 비교
+ * ./gradlew benchmark --tests "*SaveAllBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class SaveAllBenchmarkTest {
+
+    static final int ROWS = 10_000;
+
+    HikariDataSource dataSource;
+    JdbcTemplate template;
+
+    @BeforeEach
+    void before() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(URL);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        template = new JdbcTemplate(dataSource);
+        template.execute("select 1"); //풀 초기화 시간은 측정에서 제외
+    }
+
+    @AfterEach
+    void after() {
+        template.update("delete from Member where member_id like 'bench%'");
+        dataSource.close();
+    }
+
+    @Test
+    void saveOneByOneV4_2() {
+        MemberRepository repository = new MemberRepositoryV4_2(dataSource);
+        List<Member> members = members();
+
+        long start = System.nanoTime();
+        for (Member member : members) {
+            repository.save(member);
+        }
+        report("save V4_2", start);
+    }
+
+    @Test
+    void saveAllV4_2() {
+        MemberRepository repository = new MemberRepositoryV4_2(dataSource);
+        List<Member> members = members();
+
+        long start = System.nanoTime();
+        repository.saveAll(members);
+        report("saveAll V4_2", start);
+    }
+
+    @Test
+    void saveOneByOneV5() {
+        MemberRepository repository = new MemberRepositoryV5(dataSource);
+        List<Member> members = members();
+
+        long start = System.nanoTime();
+        for (Member member : members) {
+            repository.save(member);
+        }
+        report("save V5", start);
+    }
+
+    @Test
+    void saveAllV5() {
+        MemberRepository repository = new MemberRepositoryV5(dataSource);
+        List<Member> members = members();
+
+        long start = System.nanoTime();
+        repository.saveAll(members);
+        report("saveAll V5", start);
+    }
+
+    private List<Member> members() {
+        List<Member> members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            members.add(new Member(String.format("bench%05d", i), i));
+        }
+        return members;
+    }
+
+    private void report(String name, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSec = ROWS / (elapsedNanos / 1_000_000_000.0);
+        log.info("[{}] rows={}, elapsed={}ms, rows/sec={}", name, ROWS, elapsedNanos / 1_000_000, String.format("%.0f", rowsPerSec));
+    }
+}
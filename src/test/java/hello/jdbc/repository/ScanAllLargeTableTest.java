@@ -0,0 +1,80 @@
+package hello.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 100만 건 스캔 - 작은 힙(-Xmx64m)에서 OOM 없이 끝나야 한다
+ * ./gradlew scanTest
+ */
+@Slf4j
+@Tag("scan")
+class ScanAllLargeTableTest {
+
+    static final int ROWS = 1_000_000;
+    static final int INSERT_CHUNK = 10_000;
+
+    HikariDataSource dataSource;
+
+    @BeforeEach
+    void before() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(URL);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+
+        MemberRepository repository = new MemberRepositoryV4_2(dataSource);
+        for (int from = 0; from < ROWS; from += INSERT_CHUNK) {
+            List<Member> members = new ArrayList<>(INSERT_CHUNK);
+            for (int i = from; i < from + INSERT_CHUNK; i++) {
+                members.add(new Member(String.format("scan%06d", i), 1));
+            }
+            repository.saveAll(members);
+        }
+    }
+
+    @AfterEach
+    void after() {
+        new JdbcTemplate(dataSource).update("delete from Member where member_id like 'scan%'");
+        dataSource.close();
+    }
+
+    @Test
+    void scanAllV4_2() {
+        scan(new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    void scanAllV5() {
+        scan(new MemberRepositoryV5(dataSource));
+    }
+
+    private void scan(MemberRepository repository) {
+        Runtime runtime = Runtime.getRuntime();
+        AtomicLong maxUsed = new AtomicLong();
+        long count;
+
+        try (Stream<Member> members = repository.scanAll(1000)) {
+            count = members.filter(member -> member.getMemberId().startsWith("scan"))
+                    .peek(member -> maxUsed.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max))
+                    .count();
+        }
+
+        log.info("scanned={}, maxHeap={}MB, maxUsed={}MB", count, runtime.maxMemory() >> 20, maxUsed.get() >> 20);
+        assertThat(count).isEqualTo(ROWS);
+    }
+}
@@ -0,0 +1,131 @@
+package hello.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+
+/**
+ * 신규/기존 회원이 반씩 섞인 "생성 또는 충전" - rows/sec 비교
+ * - save 후 중복 키면 findById + update (기존 회원은 왕복 3번 + 예외)
+ * - upsert 한 건씩 (MERGE 왕복 1번)
+ * - upsertAll 배치
+ * ./gradlew benchmark --tests "*UpsertBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class UpsertBenchmarkTest {
+
+    static final int ROWS = 10_000;
+
+    HikariDataSource dataSource;
+    JdbcTemplate template;
+    List<Member> members;
+
+    @BeforeEach
+    void before() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(URL);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        template = new JdbcTemplate(dataSource);
+
+        //짝수 번호는 미리 저장해 둔 기존 회원, 순서는 섞는다
+        members = new ArrayList<>(ROWS);
+        List<Member> existing = new ArrayList<>(ROWS / 2);
+        for (int i = 0; i < ROWS; i++) {
+            String memberId = String.format("ups%05d", i);
+            members.add(new Member(memberId, i));
+            if (i % 2 == 0) {
+                existing.add(new Member(memberId, 0));
+            }
+        }
+        Collections.shuffle(members, new Random(42));
+        new MemberRepositoryV5(dataSource).saveAll(existing);
+    }
+
+    @AfterEach
+    void after() {
+        template.update("delete from Member where member_id like 'ups%'");
+        dataSource.close();
+    }
+
+    @Test
+    void saveOrUpdateV4_2() {
+        saveOrUpdate("save+catch V4_2", new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    void upsertV4_2() {
+        upsert("upsert V4_2", new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    void upsertAllV4_2() {
+        upsertAll("upsertAll V4_2", new MemberRepositoryV4_2(dataSource));
+    }
+
+    @Test
+    void saveOrUpdateV5() {
+        saveOrUpdate("save+catch V5", new MemberRepositoryV5(dataSource));
+    }
+
+    @Test
+    void upsertV5() {
+        upsert("upsert V5", new MemberRepositoryV5(dataSource));
+    }
+
+    @Test
+    void upsertAllV5() {
+        upsertAll("upsertAll V5", new MemberRepositoryV5(dataSource));
+    }
+
+    private void saveOrUpdate(String name, MemberRepository repository) {
+        long start = System.nanoTime();
+        for (Member member : members) {
+            try {
+                repository.save(member);
+            } catch (DuplicateKeyException e) {
+                Member found = repository.findById(member.getMemberId());
+                repository.update(found.getMemberId(), member.getMoney());
+            }
+        }
+        report(name, start);
+    }
+
+    private void upsert(String name, MemberRepository repository) {
+        long start = System.nanoTime();
+        for (Member member : members) {
+            repository.upsert(member);
+        }
+        report(name, start);
+    }
+
+    private void upsertAll(String name, MemberRepository repository) {
+        long start = System.nanoTime();
+        repository.upsertAll(members);
+        report(name, start);
+    }
+
+    private void report(String name, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSec = ROWS / (elapsedNanos / 1_000_000_000.0);
+        log.info("[{}] rows={}, elapsed={}ms, rows/sec={}", name, ROWS, elapsedNanos / 1_000_000, String.format("%.0f", rowsPerSec));
+        Integer total = template.queryForObject("select count(*) from Member where member_id like 'ups%'", Integer.class);
+        if (total == null || total != ROWS) {
+            throw new IllegalStateException("rows=" + total);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package hello.jdbc.service;
+
+import hello.jdbc.connection.R2dbcPools;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryR2dbc;
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import reactor.core.publisher.Flux;
+
+import java.util.NoSuchElementException;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberServiceR2dbcTest {
+
+    static final String MEMBER_A = "memberA";
+    static final String MEMBER_B = "memberB";
+    static final String MEMBER_EX = "ex";
+
+    ConnectionPool pool;
+    MemberRepositoryR2dbc memberRepository;
+    MemberServiceR2dbc memberService;
+
+    @BeforeEach
+    void before() {
+        pool = R2dbcPools.h2(R2DBC_H2_URL, USERNAME, PASSWORD, 2);
+        memberRepository = new MemberRepositoryR2dbc(pool);
+        memberService = new MemberServiceR2dbc(memberRepository, new R2dbcTransactionManager(pool));
+    }
+
+    @AfterEach
+    void after() {
+        Flux.just(MEMBER_A, MEMBER_B, MEMBER_EX).concatMap(memberRepository::delete).blockLast();
+        pool.dispose();
+    }
+
+    @Test
+    @DisplayName("정상이체")
+    void accountTransfer() {
+        memberRepository.save(new Member(MEMBER_A, 10000)).block();
+        memberRepository.save(new Member(MEMBER_B, 10000)).block();
+
+        memberService.accountTransfer(MEMBER_A, MEMBER_B, 2000).block();
+
+        assertThat(memberRepository.findById(MEMBER_A).block().getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(MEMBER_B).block().getMoney()).isEqualTo(12000);
+    }
+
+    @Test
+    @DisplayName("이체중 예외 발생 - 출금도 롤백")
+    void accountTransferEx() {
+        memberRepository.save(new Member(MEMBER_A, 10000)).block();
+        memberRepository.save(new Member(MEMBER_EX, 10000)).block();
+
+        assertThatThrownBy(() -> memberService.accountTransfer(MEMBER_A, MEMBER_EX, 2000).block())
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).block().getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_EX).block().getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("없는 회원에게 이체")
+    void accountTransferMissing() {
+        memberRepository.save(new Member(MEMBER_A, 10000)).block();
+
+        assertThatThrownBy(() -> memberService.accountTransfer(MEMBER_A, MEMBER_B, 2000).block())
+                .isInstanceOf(NoSuchElementException.class);
+        assertThat(memberRepository.findById(MEMBER_A).block().getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("자기 자신에게 이체 - 잔액이 늘지 않도록 거부")
+    void accountTransferSelf() {
+        memberRepository.save(new Member(MEMBER_A, 10000)).block();
+
+        assertThatThrownBy(() -> memberService.accountTransfer(MEMBER_A, MEMBER_A, 2000).block())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberService.accountTransferDelta(MEMBER_A, MEMBER_A, 2000).block())
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Member member = memberRepository.findById(MEMBER_A).block();
+        assertThat(member.getMoney()).isEqualTo(10000);
+        assertThat(member.getVersion()).isZero();
+    }
+
+    @Test
+    @DisplayName("증감 이체 - 잔액 부족이면 반영하지 않는다, 입금 실패면 출금도 롤백")
+    void accountTransferDelta() {
+        memberRepository.save(new Member(MEMBER_A, 10000)).block();
+        memberRepository.save(new Member(MEMBER_B, 10000)).block();
+        memberRepository.save(new Member(MEMBER_EX, 10000)).block();
+
+        memberService.accountTransferDelta(MEMBER_A, MEMBER_B, 2000).block();
+        assertThatThrownBy(() -> memberService.accountTransferDelta(MEMBER_A, MEMBER_B, 9000).block())
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> memberService.accountTransferDelta(MEMBER_A, MEMBER_EX, 1000).block())
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).block().getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(MEMBER_B).block().getMoney()).isEqualTo(12000);
+        assertThat(memberRepository.findById(MEMBER_EX).block().getMoney()).isEqualTo(10000);
+    }
+}
@@ -11,9 +11,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import javax.sql.DataSource;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -36,9 +45,11 @@ class MemberServiceV4Test {
     static class TestConfig{
 
         private final DataSource dataSource;
+        private final PlatformTransactionManager transactionManager;
 
-        public TestConfig(DataSource dataSource) {
+        public TestConfig(DataSource dataSource, PlatformTransactionManager transactionManager) {
             this.dataSource = dataSource;
+            this.transactionManager = transactionManager;
         }
 
         @Bean
@@ -50,7 +61,7 @@ class MemberServiceV4Test {
 
         @Bean
         MemberServiceV4 memberServiceV4() {
-            return new MemberServiceV4(memberRepository());
+            return new MemberServiceV4(memberRepository(), transactionManager);
         }
     }
 
@@ -103,4 +114,259 @@ class MemberServiceV4Test {
         assertThat(findMemberA.getMoney()).isEqualTo(10000);
         assertThat(findMemberB.getMoney()).isEqualTo(10000);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("증감 이체 - 조회 없이 UPDATE 두 번")
+    void accountTransferDelta() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        memberService.accountTransferDelta(MEMBER_A, MEMBER_B, 2000);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(12000);
+    }
+
+    @Test
+    @DisplayName("증감 이체 - 잔액 부족이면 반영하지 않음")
+    void accountTransferDeltaInsufficient() {
+        memberRepository.save(new Member(MEMBER_A, 1000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        assertThatThrownBy(() -> memberService.accountTransferDelta(MEMBER_A, MEMBER_B, 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(1000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("증감 이체중 예외 발생 - 출금도 롤백")
+    void accountTransferDeltaEx() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+
+        assertThatThrownBy(() -> memberService.accountTransferDelta(MEMBER_A, MEMBER_EX, 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("증감 이체 - 입금 회원이 없으면 롤백")
+    void accountTransferDeltaNoMember() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+
+        assertThatThrownBy(() -> memberService.accountTransferDelta(MEMBER_A, MEMBER_B, 2000))
+                .isInstanceOf(NoSuchElementException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("배치 이체 - UPDATE 두 건을 배치 한 번으로")
+    void accountTransferBatch() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        memberService.accountTransferBatch(MEMBER_A, MEMBER_B, 2000);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(12000);
+    }
+
+    @Test
+    @DisplayName("배치 이체 - 입금 회원이 없으면 출금도 롤백")
+    void accountTransferBatchNoMember() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+
+        assertThatThrownBy(() -> memberService.accountTransferBatch(MEMBER_A, MEMBER_B, 2000))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining(MEMBER_B);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("배치 이체 - 출금 회원이 없으면 입금도 롤백")
+    void accountTransferBatchNoFromMember() {
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        assertThatThrownBy(() -> memberService.accountTransferBatch(MEMBER_A, MEMBER_B, 2000))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining(MEMBER_A);
+
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("낙관적 이체 - version 이 1 올라간다")
+    void accountTransferOptimistic() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        memberService.accountTransferOptimistic(MEMBER_A, MEMBER_B, 2000);
+
+        Member findMemberA = memberRepository.findById(MEMBER_A);
+        Member findMemberB = memberRepository.findById(MEMBER_B);
+        assertThat(findMemberA.getMoney()).isEqualTo(8000);
+        assertThat(findMemberA.getVersion()).isEqualTo(1);
+        assertThat(findMemberB.getMoney()).isEqualTo(12000);
+        assertThat(findMemberB.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("낙관적 이체중 예외 발생 - 재시도하지 않고 롤백")
+    void accountTransferOptimisticEx() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+
+        assertThatThrownBy(() -> memberService.accountTransferOptimistic(MEMBER_A, MEMBER_EX, 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_A).getVersion()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("낙관적 이체 - 동시 이체에도 갱신 손실 없음")
+    void accountTransferOptimisticConcurrent() throws Exception {
+        int threads = 8;
+        int transfersPerThread = 25;
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        //스프링 빈을 다른 테스트와 공유하므로 지표는 증가분으로 비교
+        RetryingTransactionTemplate retryTemplate = memberService.getRetryTemplate();
+        long callsBefore = retryTemplate.getCallCount();
+        long failedBefore = retryTemplate.getExhaustedCount() + retryTemplate.getBudgetRejectedCount();
+
+        //재시도를 모두 소진한 이체는 전부 롤백되어야 한다
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < transfersPerThread; j++) {
+                        try {
+                            memberService.accountTransferOptimistic(MEMBER_A, MEMBER_B, 10);
+                            succeeded.incrementAndGet();
+                        } catch (OptimisticLockingFailureException e) {
+                            log.info("retry exhausted", e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int transferred = succeeded.get() * 10;
+        log.info("succeeded={}/{}, retries={}, recovered={}, exhausted={}, budgetRejected={}",
+                succeeded.get(), threads * transfersPerThread, retryTemplate.getRetryCount(), retryTemplate.getRecoveredCount(),
+                retryTemplate.getExhaustedCount(), retryTemplate.getBudgetRejectedCount());
+        assertThat(succeeded.get()).isPositive();
+        assertThat(retryTemplate.getCallCount() - callsBefore).isEqualTo(threads * transfersPerThread);
+        assertThat(retryTemplate.getExhaustedCount() + retryTemplate.getBudgetRejectedCount() - failedBefore)
+                .isEqualTo(threads * transfersPerThread - succeeded.get());
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000 - transferred);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(10000 + transferred);
+    }
+
+    @Test
+    @DisplayName("낙관적 이체 - 자기 자신에게 이체는 재시도 없이 거절")
+    void accountTransferOptimisticSelf() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        long retriesBefore = memberService.getRetryTemplate().getRetryCount();
+
+        assertThatThrownBy(() -> memberService.accountTransferOptimistic(MEMBER_A, MEMBER_A, 2000))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(memberService.getRetryTemplate().getRetryCount()).isEqualTo(retriesBefore);
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_A).getVersion()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("비관적 이체 - 정렬된 순서로 잠그고 이체")
+    void accountTransferPessimistic() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        memberService.accountTransferPessimistic(MEMBER_B, MEMBER_A, 2000);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(12000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(8000);
+    }
+
+    @Test
+    @DisplayName("비관적 이체중 예외 발생 - 재시도하지 않고 롤백")
+    void accountTransferPessimisticEx() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+
+        assertThatThrownBy(() -> memberService.accountTransferPessimistic(MEMBER_A, MEMBER_EX, 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("자기 자신에게 이체 - 거절하고 잔액은 그대로")
+    void accountTransferSelf() {
+        memberRepository.save(new Member(MEMBER_A, 10000));
+
+        assertThatThrownBy(() -> memberService.accountTransfer(MEMBER_A, MEMBER_A, 2000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberService.accountTransferDelta(MEMBER_A, MEMBER_A, 2000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberService.accountTransferBatch(MEMBER_A, MEMBER_A, 2000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberService.accountTransferPessimistic(MEMBER_A, MEMBER_A, 2000))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Member findMemberA = memberRepository.findById(MEMBER_A);
+        assertThat(findMemberA.getMoney()).isEqualTo(10000);
+        assertThat(findMemberA.getVersion()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("비관적 이체 - A->B, B->A 동시 이체도 교착상태 없이 모두 반영")
+    void accountTransferPessimisticSymmetric() throws Exception {
+        int threads = 8;
+        int transfersPerThread = 25;
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                boolean aToB = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < transfersPerThread; j++) {
+                        if (aToB) {
+                            memberService.accountTransferPessimistic(MEMBER_A, MEMBER_B, 10);
+                        } else {
+                            memberService.accountTransferPessimistic(MEMBER_B, MEMBER_A, 20);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int net = threads / 2 * transfersPerThread * (20 - 10);
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000 + net);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(10000 - net);
+    }
+}
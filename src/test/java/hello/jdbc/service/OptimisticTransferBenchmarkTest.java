@@ -0,0 +1,170 @@
+package hello.jdbc.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.support.MemberServices.Transfer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 소수의 계좌에 이체가 몰릴 때 - 낙관적 락(version + 재시도) vs 비관적 락(SELECT ... FOR UPDATE)
+ * ./gradlew benchmark --tests "*OptimisticTransferBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class OptimisticTransferBenchmarkTest {
+
+    static final int ACCOUNTS = 16;
+    static final int INITIAL_MONEY = 1_000_000;
+    static final int TRANSFERS = 4_000;
+
+    HikariDataSource dataSource;
+    JdbcTemplate template;
+    DataSourceTransactionManager transactionManager;
+    List<String> memberIds = new ArrayList<>();
+
+    @BeforeEach
+    void before() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(URL);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setMaximumPoolSize(32);
+        template = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String memberId = String.format("occ%02d", i);
+            memberIds.add(memberId);
+            repository.delete(memberId);
+            members.add(new Member(memberId, INITIAL_MONEY));
+        }
+        repository.saveAll(members);
+    }
+
+    @AfterEach
+    void after() {
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+        memberIds.forEach(repository::delete);
+        dataSource.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {8, 32, 128})
+    void optimistic(int threads) throws Exception {
+        LongAdder conflicts = new LongAdder();
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource) {
+            @Override
+            public boolean updateIfVersion(String memberId, int money, long version) {
+                boolean updated = super.updateIfVersion(memberId, money, version);
+                if (!updated) {
+                    conflicts.increment();
+                }
+                return updated;
+            }
+        };
+        MemberServiceV4 service = new MemberServiceV4(repository, transactionManager);
+
+        run("optimistic", threads, service::accountTransferOptimistic);
+        log.info("[optimistic] threads={}, conflicts={}", threads, conflicts.sum());
+    }
+
+    /**
+     * 재시도 예산 없이 - 시도 횟수(기본 10번)로만 제한
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {8, 32, 128})
+    void optimisticWithoutBudget(int threads) throws Exception {
+        RetryingTransactionTemplate retryTemplate = new RetryingTransactionTemplate(new TransactionTemplate(transactionManager),
+                RetryingTransactionTemplate.DEFAULT_MAX_ATTEMPTS, RetryingTransactionTemplate.DEFAULT_BACKOFF_BASE_MILLIS,
+                RetryingTransactionTemplate.DEFAULT_BACKOFF_MAX_MILLIS);
+        MemberServiceV4 service = new MemberServiceV4(new MemberRepositoryV5(dataSource), retryTemplate);
+
+        run("optimistic no budget", threads, service::accountTransferOptimistic);
+        log.info("[optimistic no budget] threads={}, retries={}", threads, retryTemplate.getRetryCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {8, 32, 128})
+    void selectForUpdate(int threads) throws Exception {
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+        String sql = "select member_id, money from Member where member_id in (?, ?) order by member_id for update";
+
+        run("for update", threads, (fromId, toId, amount) -> txTemplate.executeWithoutResult(status -> {
+            int[] money = new int[2];
+            template.query(sql, rs -> {
+                money[rs.getString(1).equals(fromId) ? 0 : 1] = rs.getInt(2);
+            }, fromId, toId);
+            repository.update(fromId, money[0] - amount);
+            repository.update(toId, money[1] + amount);
+        }));
+    }
+
+    private void run(String name, int threads, Transfer transfer) throws Exception {
+        int perThread = TRANSFERS / threads;
+        LongAdder failures = new LongAdder();
+        long[][] latencies = new long[threads][perThread];
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long[] threadLatencies = latencies[t];
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perThread; i++) {
+                        int from = random.nextInt(ACCOUNTS);
+                        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                        long begin = System.nanoTime();
+                        try {
+                            transfer.run(memberIds.get(from), memberIds.get(to), 1);
+                        } catch (DataAccessException e) {
+                            failures.increment();
+                        }
+                        threadLatencies[i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        log.info("[{}] threads={}, transfers={}, failures={}, throughput={}/s, p50={}us, p99={}us", name, threads,
+                all.length, failures.sum(), all.length * 1_000_000_000L / elapsed,
+                all[all.length / 2] / 1000, all[(int) (all.length * 0.99)] / 1000);
+
+        Integer total = template.queryForObject("select sum(money) from Member where member_id like 'occ%'", Integer.class);
+        assertThat(total).isEqualTo(ACCOUNTS * INITIAL_MONEY);
+    }
+}
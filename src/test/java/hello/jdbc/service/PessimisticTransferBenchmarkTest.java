@@ -0,0 +1,135 @@
+package hello.jdbc.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.support.MemberServices.Transfer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A->B, B->A 가 섞인 대칭 이체 부하에서 잠금 순서에 따른 지연시간
+ * - unordered : findByIdForUpdate(from) -> findByIdForUpdate(to), 재시도 없음
+ * - ordered   : accountTransferPessimistic (memberId 순서로 한 번에 잠금 + 재시도)
+ * ./gradlew benchmark --tests "*PessimisticTransferBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class PessimisticTransferBenchmarkTest {
+
+    static final int ACCOUNTS = 4;
+    static final int THREADS = 32;
+    static final int TRANSFERS = 4_000;
+    static final int INITIAL_MONEY = 1_000_000;
+
+    HikariDataSource dataSource;
+    DataSourceTransactionManager transactionManager;
+    MemberRepositoryV5 repository;
+    List<String> memberIds = new ArrayList<>();
+
+    @BeforeEach
+    void before() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(URL);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setMaximumPoolSize(THREADS);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        repository = new MemberRepositoryV5(dataSource);
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String memberId = String.format("sym%02d", i);
+            memberIds.add(memberId);
+            repository.delete(memberId);
+            repository.save(new Member(memberId, INITIAL_MONEY));
+        }
+    }
+
+    @AfterEach
+    void after() {
+        memberIds.forEach(repository::delete);
+        dataSource.close();
+    }
+
+    @Test
+    void unordered() throws Exception {
+        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+        run("unordered", (fromId, toId, amount) -> txTemplate.executeWithoutResult(status -> {
+            Member fromMember = repository.findByIdForUpdate(fromId);
+            Member toMember = repository.findByIdForUpdate(toId);
+            repository.update(fromId, fromMember.getMoney() - amount);
+            repository.update(toId, toMember.getMoney() + amount);
+        }));
+    }
+
+    @Test
+    void ordered() throws Exception {
+        MemberServiceV4 service = new MemberServiceV4(repository, transactionManager);
+        run("ordered", service::accountTransferPessimistic);
+    }
+
+    private void run(String name, Transfer transfer) throws Exception {
+        int perThread = TRANSFERS / THREADS;
+        Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        long[][] latencies = new long[THREADS][perThread];
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long[] threadLatencies = latencies[t];
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perThread; i++) {
+                        int from = random.nextInt(ACCOUNTS);
+                        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                        long begin = System.nanoTime();
+                        try {
+                            transfer.run(memberIds.get(from), memberIds.get(to), 1);
+                        } catch (DataAccessException e) {
+                            failures.computeIfAbsent(e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+                        }
+                        threadLatencies[i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        log.info("[{}] threads={}, transfers={}, throughput={}/s, p50={}us, p99={}us, max={}us, failures={}", name, THREADS,
+                all.length, all.length * 1_000_000_000L / elapsed, all[all.length / 2] / 1000,
+                all[(int) (all.length * 0.99)] / 1000, all[all.length - 1] / 1000, failures);
+
+        Integer total = new JdbcTemplate(dataSource).queryForObject("select sum(money) from Member where member_id like 'sym%'", Integer.class);
+        assertThat(total).isEqualTo(ACCOUNTS * INITIAL_MONEY);
+    }
+}
@@ -0,0 +1,182 @@
+package hello.jdbc.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 메모리 H2 트랜잭션 매니저, 콜백에서 예외를 직접 던진다
+ */
+class RetryingTransactionTemplateTest {
+
+    TransactionTemplate txTemplate;
+
+    @BeforeEach
+    void before() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:retry;DB_CLOSE_DELAY=-1", "sa", "");
+        txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    @DisplayName("일시적 실패는 트랜잭션을 새로 시작해서 재시도")
+    void retryTransient() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(txTemplate, 5, 0, 0, 10, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = template.execute(status -> {
+            assertThat(status.isNewTransaction()).isTrue();
+            switch (attempts.incrementAndGet()) {
+                case 1:
+                    throw new CannotAcquireLockException("lock timeout");
+                case 2:
+                    throw new DeadlockLoserDataAccessException("deadlock", null);
+                case 3:
+                    throw new OptimisticLockingFailureException("version");
+                default:
+                    return "ok";
+            }
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts.get()).isEqualTo(4);
+        assertThat(template.getCallCount()).isEqualTo(1);
+        assertThat(template.getRetryCount()).isEqualTo(3);
+        assertThat(template.getRecoveredCount()).isEqualTo(1);
+        assertThat(template.getBudgetTokens()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("일시적이지 않은 실패는 재시도하지 않음")
+    void nonTransient() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(txTemplate, 5, 0, 0, 10, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> template.executeWithoutResult(status -> {
+            attempts.incrementAndGet();
+            throw new DuplicateKeyException("dup");
+        })).isInstanceOf(DuplicateKeyException.class);
+        assertThatThrownBy(() -> template.executeWithoutResult(status -> {
+            attempts.incrementAndGet();
+            throw new DataAccessResourceFailureException("connection refused");
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThatThrownBy(() -> template.executeWithoutResult(status -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("biz");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(template.getRetryCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("maxAttempts 를 모두 쓰면 마지막 예외를 던진다")
+    void exhausted() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(txTemplate, 3, 0, 0, 10, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> template.executeWithoutResult(status -> {
+            throw new CannotAcquireLockException("lock timeout " + attempts.incrementAndGet());
+        })).isInstanceOf(CannotAcquireLockException.class).hasMessage("lock timeout 3");
+
+        assertThat(template.getRetryCount()).isEqualTo(2);
+        assertThat(template.getExhaustedCount()).isEqualTo(1);
+        assertThat(template.getRecoveredCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("재시도 예산이 없으면 재시도하지 않고, 호출마다 비율만큼 다시 쌓인다")
+    void budget() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(txTemplate, 10, 0, 0, 2, 0.5);
+        AtomicInteger attempts = new AtomicInteger();
+
+        //예산은 최대치 2 에서 시작 (적립해도 2) -> 재시도 2번 후 예산 소진
+        assertThatThrownBy(() -> template.executeWithoutResult(status -> {
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("lock timeout");
+        })).isInstanceOf(CannotAcquireLockException.class);
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(template.getBudgetRejectedCount()).isEqualTo(1);
+        assertThat(template.getBudgetTokens()).isZero();
+
+        //호출 2번으로 1 적립 -> 다음 호출(+0.5) 은 재시도 1번 후 성공
+        template.executeWithoutResult(status -> {
+        });
+        template.executeWithoutResult(status -> {
+        });
+        attempts.set(0);
+        template.executeWithoutResult(status -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new CannotAcquireLockException("lock timeout");
+            }
+        });
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(template.getBudgetTokens()).isEqualTo(0.5);
+
+        //성공한 호출만으로 예산이 최대치까지 다시 찬다
+        for (int i = 0; i < 10; i++) {
+            template.executeWithoutResult(status -> {
+            });
+        }
+        assertThat(template.getBudgetTokens()).isEqualTo(2);
+        assertThat(template.getRetryCount()).isEqualTo(3);
+        assertThat(template.getCallCount()).isEqualTo(14);
+    }
+
+    @Test
+    @DisplayName("예산 없는 생성자 - maxAttempts 로만 제한")
+    void withoutBudget() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(txTemplate, 4, 0, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> template.executeWithoutResult(status -> {
+                attempts.incrementAndGet();
+                throw new OptimisticLockingFailureException("version");
+            })).isInstanceOf(OptimisticLockingFailureException.class);
+        }
+
+        assertThat(attempts.get()).isEqualTo(20);
+        assertThat(template.getRetryCount()).isEqualTo(15);
+        assertThat(template.getExhaustedCount()).isEqualTo(5);
+        assertThat(template.getBudgetRejectedCount()).isZero();
+        assertThat(template.getBudgetTokens()).isInfinite();
+    }
+
+    @Test
+    @DisplayName("이미 트랜잭션 안이면 바깥 트랜잭션에 참여하고 재시도하지 않음")
+    void joinOuterTransaction() {
+        RetryingTransactionTemplate template = new RetryingTransactionTemplate(txTemplate, 5, 0, 0, 10, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> txTemplate.executeWithoutResult(outer -> template.executeWithoutResult(status -> {
+            assertThat(status.isNewTransaction()).isFalse();
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("lock timeout");
+        }))).isInstanceOf(CannotAcquireLockException.class);
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(template.getRetryCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("잘못된 설정")
+    void invalid() {
+        assertThatThrownBy(() -> new RetryingTransactionTemplate(txTemplate, 0, 0, 0, 10, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RetryingTransactionTemplate(txTemplate, 3, 10, 5, 10, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
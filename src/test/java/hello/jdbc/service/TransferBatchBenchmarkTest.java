@@ -0,0 +1,153 @@
+package hello.jdbc.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.jdbc.domain.Member;
+import hello.jdbc.repository.MemberRepositoryV3;
+import hello.jdbc.repository.MemberRepositoryV4_2;
+import hello.jdbc.support.MemberServices.Transfer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+import static hello.jdbc.connection.ConnectionConst.*;
+import static hello.jdbc.support.MemberServices.transactional;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 이체 1건당 DB 왕복 횟수와 지연시간
+ * MemberServiceV3_3 (findById 2 + update 2) vs MemberServiceV4.accountTransferBatch (배치 1)
+ * ./gradlew benchmark --tests "*TransferBatchBenchmarkTest"
+ */
+@Slf4j
+@Tag("benchmark")
+class TransferBatchBenchmarkTest {
+
+    static final String MEMBER_A = "memberA";
+    static final String MEMBER_B = "memberB";
+    static final int WARMUP = 1_000;
+    static final int TRANSFERS = 5_000;
+
+    HikariDataSource hikari;
+    RoundTripCountingDataSource dataSource;
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void before() throws SQLException {
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl(URL);
+        hikari.setUsername(USERNAME);
+        hikari.setPassword(PASSWORD);
+        dataSource = new RoundTripCountingDataSource(hikari);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        MemberRepositoryV3 repository = new MemberRepositoryV3(hikari);
+        repository.save(new Member(MEMBER_A, 1_000_000));
+        repository.save(new Member(MEMBER_B, 1_000_000));
+    }
+
+    @AfterEach
+    void after() throws SQLException {
+        MemberRepositoryV3 repository = new MemberRepositoryV3(hikari);
+        repository.delete(MEMBER_A);
+        repository.delete(MEMBER_B);
+        hikari.close();
+    }
+
+    @Test
+    void v3_3() throws Exception {
+        MemberServiceV3_3 service = transactional(new MemberServiceV3_3(new MemberRepositoryV3(dataSource)), transactionManager);
+        run("V3_3 select+update", service::accountTransfer);
+    }
+
+    @Test
+    void v4Batch() throws Exception {
+        MemberServiceV4 service = transactional(new MemberServiceV4(new MemberRepositoryV4_2(dataSource), transactionManager), transactionManager);
+        run("V4 batch", service::accountTransferBatch);
+    }
+
+    private void run(String name, Transfer transfer) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            transfer.run(MEMBER_A, MEMBER_B, 1);
+        }
+
+        dataSource.reset();
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSFERS; i++) {
+            transfer.run(MEMBER_A, MEMBER_B, 1);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        log.info("[{}] transfers={}, statements/transfer={}, commits/transfer={}, avg={}us", name, TRANSFERS,
+                (double) dataSource.statements.sum() / TRANSFERS,
+                (double) dataSource.commits.sum() / TRANSFERS,
+                elapsed / TRANSFERS / 1000);
+        assertThat(new MemberRepositoryV3(hikari).findById(MEMBER_B).getMoney())
+                .isEqualTo(1_000_000 + WARMUP + TRANSFERS);
+    }
+
+    /**
+     * execute* / executeBatch 와 commit 호출 수를 센다 (DB 왕복 횟수)
+     */
+    static class RoundTripCountingDataSource extends DelegatingDataSource {
+
+        final LongAdder statements = new LongAdder();
+        final LongAdder commits = new LongAdder();
+
+        RoundTripCountingDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        void reset() {
+            statements.reset();
+            commits.reset();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection target = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("commit")) {
+                            commits.increment();
+                        }
+                        Object result = invoke(target, method, args);
+                        if (result instanceof Statement) {
+                            return countingStatement((Statement) result, method.getReturnType());
+                        }
+                        return result;
+                    });
+        }
+
+        private Object countingStatement(Statement target, Class<?> type) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            statements.increment();
+                        }
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package hello.jdbc.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+/**
+ * 메모리 H2 + HikariCP, 스키마는 main 의 schema.sql - 테스트, JMH 벤치마크, 부하 테스트가 같이 사용
+ * 서로 다른 name 을 쓰면 서로 다른 DB
+ */
+public final class EmbeddedH2 {
+
+    private EmbeddedH2() {
+    }
+
+    public static HikariDataSource start(String name) {
+        return start(name, 0);
+    }
+
+    /**
+     * @param maximumPoolSize 0 이하면 HikariCP 기본값
+     */
+    public static HikariDataSource start(String name, int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setPoolName(name);
+        if (maximumPoolSize > 0) {
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+        }
+        createSchema(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * 풀 없이 직접 만든 DataSource(SingleConnectionDataSource 등)에 같은 schema.sql 적용, 여러 번 실행해도 된다
+     */
+    public static void createSchema(DataSource dataSource) {
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")), dataSource);
+    }
+
+    public static void stop(HikariDataSource dataSource) {
+        new JdbcTemplate(dataSource).execute("drop all objects");
+        dataSource.close();
+    }
+}
@@ -0,0 +1,79 @@
+package hello.jdbc.support;
+
+import hello.jdbc.repository.MemberRepositoryV1;
+import hello.jdbc.repository.MemberRepositoryV2;
+import hello.jdbc.repository.MemberRepositoryV3;
+import hello.jdbc.repository.MemberRepositoryV5;
+import hello.jdbc.service.MemberServiceV1;
+import hello.jdbc.service.MemberServiceV2;
+import hello.jdbc.service.MemberServiceV3_1;
+import hello.jdbc.service.MemberServiceV3_2;
+import hello.jdbc.service.MemberServiceV3_3;
+import hello.jdbc.service.MemberServiceV4;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import javax.sql.DataSource;
+
+/**
+ * 스프링 컨테이너 없이 서비스 세대별 이체를 조립 - JMH ServiceBenchmark, TransferLoadTest, 이체 벤치마크 테스트가 같이 사용
+ *
+ * V1, V2, V3_1, V3_2, V3_3, V4 - accountTransfer
+ * V4_delta, V4_batch, V4_optimistic, V4_pessimistic - MemberServiceV4 의 다른 이체 방식
+ */
+public final class MemberServices {
+
+    public interface Transfer {
+        void run(String fromId, String toId, int money) throws Exception;
+    }
+
+    private MemberServices() {
+    }
+
+    public static Transfer transfer(String service, DataSource dataSource) {
+        PlatformTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        switch (service) {
+            case "V1":
+                return new MemberServiceV1(new MemberRepositoryV1(dataSource))::accountTransfer;
+            case "V2":
+                return new MemberServiceV2(dataSource, new MemberRepositoryV2(dataSource))::accountTransfer;
+            case "V3_1":
+                return new MemberServiceV3_1(transactionManager, new MemberRepositoryV3(dataSource))::accountTransfer;
+            case "V3_2":
+                return new MemberServiceV3_2(transactionManager, new MemberRepositoryV3(dataSource))::accountTransfer;
+            case "V3_3":
+                return transactional(new MemberServiceV3_3(new MemberRepositoryV3(dataSource)), transactionManager)::accountTransfer;
+            case "V4":
+                return memberServiceV4(dataSource, transactionManager)::accountTransfer;
+            case "V4_delta":
+                return memberServiceV4(dataSource, transactionManager)::accountTransferDelta;
+            case "V4_batch":
+                return memberServiceV4(dataSource, transactionManager)::accountTransferBatch;
+            case "V4_optimistic":
+                return memberServiceV4(dataSource, transactionManager)::accountTransferOptimistic;
+            case "V4_pessimistic":
+                return memberServiceV4(dataSource, transactionManager)::accountTransferPessimistic;
+            default:
+                throw new IllegalArgumentException("unknown service=" + service);
+        }
+    }
+
+    /**
+     * 스프링 컨테이너 없이 @Transactional 적용
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T transactional(T target, TransactionManager transactionManager) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        return (T) proxyFactory.getProxy();
+    }
+
+    private static MemberServiceV4 memberServiceV4(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        return transactional(new MemberServiceV4(new MemberRepositoryV5(dataSource), transactionManager), transactionManager);
+    }
+}